@@ -0,0 +1,98 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.jja.ld34.Scheduler;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.ai.DecisionExecutor;
+import com.jja.ld34.ai.FlowField;
+import com.jja.ld34.ai.SerialDecisionExecutor;
+import com.jja.ld34.headless.ForkJoinDecisionExecutor;
+import com.jja.ld34.headless.HeadlessLevelLoader;
+import com.jja.ld34.levels.LevelData;
+import com.jja.ld34.objects.ClonePopulation;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.TrumpClone;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the AI decide stage scales with threads: every clone hunting the player along a level's flow field at once,
+ * decided serially (threads = 1) or on a ForkJoinPool. decide is only the parallel stage, over one step's batch; update
+ * is a whole AgentManager step, including the serial act stage. decisionsPerStep = 0 lifts the budget so every clone
+ * thinks every step. 32 is AgentManager's default, which SimulationRunner keeps, so it measures the batches the runner
+ * actually hands the pool. The executor is built like the runner's, with one slice per thread.
+ * Runs with more threads than Runtime.availableProcessors() only show the pool's overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AgentScalingBenchmark {
+
+    private static final float EVERY_STEP = 10;    // in s, longer than any clone's think interval
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"1000", "10000"})
+    public int cloneCount;
+
+    @Param({"0", "32"})
+    public int decisionsPerStep;
+
+    private LevelData levelData;
+    private World world;
+    private TrumpClone[] clones;
+    private DecisionExecutor executor;
+    private int batchSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+        this.levelData = new HeadlessLevelLoader().load("1-1.lvl");
+        FlowField field = FlowField.fromLevel(this.levelData);
+        field.setTarget(8, 8);
+        ClonePopulation.setFlowField(field);
+
+        // spread over the level, overlapping; they are never stepped, so it doesn't matter
+        this.world = new World(new Vector2(0, 0), true);
+        this.clones = new TrumpClone[this.cloneCount];
+        for (int i = 0; i < this.cloneCount; i++) {
+            this.clones[i] = new TrumpClone(this.world, new Vector2((i % 50) * 32, (i / 50 % 50) * 32));
+        }
+
+        this.batchSize = (this.decisionsPerStep == 0) ? this.cloneCount : Math.min(this.decisionsPerStep, this.cloneCount);
+        this.executor = (this.threads == 1) ? new SerialDecisionExecutor() : ForkJoinDecisionExecutor.forBudget(this.threads, this.batchSize);
+        AgentManager.setExecutor(this.executor);
+        AgentManager.setDecisionsPerStep(this.batchSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AgentManager.setExecutor(new SerialDecisionExecutor());
+        AgentManager.setDecisionsPerStep(AgentManager.DEFAULT_DECISIONS_PER_STEP);
+        if (this.executor instanceof ForkJoinDecisionExecutor) {
+            ((ForkJoinDecisionExecutor) this.executor).dispose();
+        }
+        ClonePopulation.setFlowField(null);
+        ObjectManager.deregisterAllObjects();
+        AgentManager.clear();
+        Scheduler.clear();
+        this.world.dispose();
+        this.levelData.dispose();
+    }
+
+    @Benchmark
+    public void decide() {
+        this.executor.decideAll(this.clones, this.batchSize);
+    }
+
+    @Benchmark
+    public void update() {
+        AgentManager.update(EVERY_STEP);
+    }
+}
@@ -0,0 +1,74 @@
+package com.jja.ld34.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Fails (exit status 1) if the steady-state movement path allocates anything. Each of MovementBenchmark's paths (the
+ * player's input and frame, every clone moving, one AgentManager step) is warmed up, then run for a number of frames
+ * with the thread's allocated bytes read from the JVM before and after. JMH's gc profiler doesn't report on every
+ * JVM, so this is the check to trust. Needs a HotSpot-based JVM; run from core/assets (gradlew benchmarks:allocationCheck).
+ */
+public class AllocationCheck {
+
+    private static final int CLONE_COUNT = 1000;
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int MEASURED_FRAMES = 10000;
+
+    private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        final MovementBenchmark fixture = new MovementBenchmark();
+        fixture.cloneCount = CLONE_COUNT;
+        fixture.setUp();
+
+        boolean allocated = false;
+        try {
+            allocated |= allocates("playerFrame", new Runnable() {
+                @Override
+                public void run() {
+                    fixture.playerFrame();
+                }
+            });
+            allocated |= allocates("cloneMoves", new Runnable() {
+                @Override
+                public void run() {
+                    fixture.cloneMoves();
+                }
+            });
+            allocated |= allocates("agentStep", new Runnable() {
+                @Override
+                public void run() {
+                    fixture.agentStep();
+                }
+            });
+        } finally {
+            fixture.tearDown();
+        }
+
+        System.out.println(allocated ? "FAILED: the movement path allocates" : "OK: 0 B per frame");
+        System.exit(allocated ? 1 : 0);
+    }
+
+    private static boolean allocates(String name, Runnable frame) {
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            frame.run();
+        }
+
+        // reading the counter allocates a little itself, so that is measured on its own and taken off
+        long overhead = allocatedBytes();
+        overhead = allocatedBytes() - overhead;
+
+        long before = allocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            frame.run();
+        }
+        long bytes = allocatedBytes() - before - overhead;
+
+        System.out.println(name + ": " + bytes + " B over " + MEASURED_FRAMES + " frames");
+        return bytes > 0;
+    }
+
+    private static long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.Vector2;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.headless.HeadlessAssets;
+import com.jja.ld34.headless.HeadlessGL;
+
+/**
+ * Sets up just enough of libGDX for the game code to run inside a JMH fork: headless files/audio/input, natives,
+ * a no-op GL and the sprite atlas backed by placeholder textures. Benchmarks must run from core/assets.
+ */
+public class BenchmarkEnvironment {
+
+    // turret bullet impulses for fixtures that fill a world with bullets
+    public static final Vector2[] BULLET_IMPULSES = {
+            new Vector2(-2, 0),
+            new Vector2(2, 0),
+            new Vector2(0, 2),
+            new Vector2(0, -2)
+    };
+
+    private static boolean initialized = false;
+
+    public static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+
+        // only wanted for the Gdx.* statics it installs, so its (empty) main loop is stopped straight away
+        new HeadlessApplication(new ApplicationAdapter() {}, new HeadlessApplicationConfiguration()).exit();
+        Gdx.app.setLogLevel(Application.LOG_NONE);
+
+        HeadlessGL.install();
+        SpriteSheets.acquire(HeadlessAssets.loadSpriteAtlas());
+        initialized = true;
+    }
+
+    // deterministic spread over the inside of a 50x50 tile map, in px
+    public static Vector2 scatter(int i) {
+        return new Vector2(64 + (i * 397) % 1472, 96 + (i * 613) % 1408);
+    }
+}
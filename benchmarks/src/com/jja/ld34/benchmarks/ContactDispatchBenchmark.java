@@ -0,0 +1,83 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.headless.HeadlessAssets;
+import com.jja.ld34.objects.TrumpClone;
+import com.jja.ld34.objects.TurretBullet;
+import com.jja.ld34.objects.TurretBulletPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact dispatch through GameSimulation's contact listener and CollisionMatrix: events recorded in the contact
+ * callbacks, then the handlers after the step. Bullet/clone pairs (off the map) are teleported into each other and back apart on
+ * alternate steps, so every other step begins one contact per pair. Comparing against dispatch=false (no listener)
+ * isolates the dispatch share of the step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ContactDispatchBenchmark {
+
+    private static final Vector2 NO_IMPULSE = new Vector2(0, 0);
+    private static final float OFFSET_X = -4000;  // in px, well clear of the level
+
+    @Param({"10", "100", "1000"})
+    public int pairCount;
+
+    @Param({"true", "false"})
+    public boolean dispatch;
+
+    private AssetManager assetManager;
+    private GameSimulation simulation;
+    private Body[] bulletBodies;
+    private boolean overlapping;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+
+        this.assetManager = HeadlessAssets.newAssetManager();
+        this.simulation = new GameSimulation(this.assetManager, null);
+        if (!this.dispatch) {
+            this.simulation.getWorld().setContactListener(null);
+        }
+
+        this.bulletBodies = new Body[this.pairCount];
+        for (int i = 0; i < this.pairCount; i++) {
+            float y = i * 64;
+            new TrumpClone(this.simulation.getWorld(), new Vector2(OFFSET_X, y));
+            TurretBullet bullet = TurretBulletPool.obtain(this.simulation.getWorld(), OFFSET_X + 200, y, NO_IMPULSE, SpriteSheets.getRegion(SpriteSheets.ENERGY_BALL));
+            this.bulletBodies[i] = bullet.getBody();
+        }
+        this.overlapping = false;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.simulation.dispose();
+        this.assetManager.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        this.overlapping = !this.overlapping;
+        float x = (OFFSET_X + (this.overlapping ? 16 : 200)) / Ld34Game.PIXELS_PER_METER;
+        for (int i = 0; i < this.pairCount; i++) {
+            Body body = this.bulletBodies[i];
+            body.setTransform(x, body.getPosition().y, 0);
+        }
+        this.simulation.getWorld().step(GameSimulation.TIME_STEP, 6, 2);
+        this.simulation.getCollisions().dispatch(this.simulation.getContactEvents());
+        this.simulation.getContactEvents().drain();
+    }
+}
@@ -0,0 +1,113 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.Scheduler;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.ai.FlowField;
+import com.jja.ld34.headless.HeadlessLevelLoader;
+import com.jja.ld34.levels.LevelData;
+import com.jja.ld34.objects.ClonePopulation;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.TrumpClone;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clones hunting the player across each level: retarget is a full search, paid only when the player moves to another
+ * tile; sample is every clone looking up its direction; cloneThink is every clone choosing and making its move. Clones
+ * are spread over the level's open tiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FlowFieldBenchmark {
+
+    @Param({"1-1", "1-2", "1-3", "1-4"})
+    public String level;
+
+    @Param({"1000"})
+    public int cloneCount;
+
+    private LevelData levelData;
+    private FlowField field;
+    private float[] targets;    // two open tile centers to alternate between, in m
+    private int nextTarget;
+    private float[] cloneXs;
+    private float[] cloneYs;
+    private World world;
+    private TrumpClone[] clones;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+        this.levelData = new HeadlessLevelLoader().load(this.level + ".lvl");
+        this.field = FlowField.fromLevel(this.levelData);
+
+        // every open tile center, in m
+        float tileSize = this.levelData.getMap().getProperties().get("tilewidth", Integer.class) / Ld34Game.PIXELS_PER_METER;
+        float[] open = new float[this.field.getWidth() * this.field.getHeight() * 2];
+        int openCount = 0;
+        for (int row = 0; row < this.field.getHeight(); row++) {
+            for (int column = 0; column < this.field.getWidth(); column++) {
+                if (!this.field.isBlocked(column, row)) {
+                    open[openCount * 2] = (column + 0.5f) * tileSize;
+                    open[openCount * 2 + 1] = (row + 0.5f) * tileSize;
+                    openCount++;
+                }
+            }
+        }
+        this.targets = new float[] {open[0], open[1], open[(openCount - 1) * 2], open[(openCount - 1) * 2 + 1]};
+        this.field.setTarget(this.targets[0], this.targets[1]);
+
+        this.world = new World(new Vector2(0, 0), true);
+        this.cloneXs = new float[this.cloneCount];
+        this.cloneYs = new float[this.cloneCount];
+        this.clones = new TrumpClone[this.cloneCount];
+        for (int i = 0; i < this.cloneCount; i++) {
+            int tile = (int) ((long) i * openCount / this.cloneCount);
+            this.cloneXs[i] = open[tile * 2];
+            this.cloneYs[i] = open[tile * 2 + 1];
+            // positioned by the bottom left corner of the tile
+            this.clones[i] = new TrumpClone(this.world, new Vector2((this.cloneXs[i] - tileSize / 2) * Ld34Game.PIXELS_PER_METER, (this.cloneYs[i] - tileSize / 2) * Ld34Game.PIXELS_PER_METER));
+        }
+        ClonePopulation.setFlowField(this.field);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ClonePopulation.setFlowField(null);
+        ObjectManager.deregisterAllObjects();
+        AgentManager.clear();
+        Scheduler.clear();
+        this.world.dispose();
+        this.levelData.dispose();
+    }
+
+    @Benchmark
+    public boolean retarget() {
+        this.nextTarget ^= 2;
+        return this.field.setTarget(this.targets[this.nextTarget], this.targets[this.nextTarget + 1]);
+    }
+
+    @Benchmark
+    public int sample() {
+        int sum = 0;
+        for (int i = 0; i < this.cloneXs.length; i++) {
+            sum += this.field.getDirection(this.cloneXs[i], this.cloneYs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void cloneThink() {
+        for (int i = 0; i < this.clones.length; i++) {
+            this.clones[i].handleInput();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.jja.ld34.headless.HeadlessLevelLoader;
+import com.jja.ld34.headless.HeadlessTmxMapLoader;
+import com.jja.ld34.levels.LevelData;
+import com.jja.ld34.levels.LevelLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level load cost, i.e. what GameSimulation pays on every level switch: the TMX maps through TmxMapLoader vs. the
+ * compiled .lvl files through LevelLoader. The *WithTileset cases include decoding the tileset PNG (the GL upload
+ * itself is a no-op here); the others swap in a placeholder texture to isolate parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapLoadBenchmark {
+
+    @Param({"1-1", "1-2", "1-3", "1-4"})
+    public String level;
+
+    private TmxMapLoader mapLoader;
+    private HeadlessTmxMapLoader headlessMapLoader;
+    private LevelLoader levelLoader;
+    private HeadlessLevelLoader headlessLevelLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+        this.mapLoader = new TmxMapLoader();
+        this.headlessMapLoader = new HeadlessTmxMapLoader();
+        this.levelLoader = new LevelLoader();
+        this.headlessLevelLoader = new HeadlessLevelLoader();
+    }
+
+    @Benchmark
+    public int tmxWithTileset() {
+        return layerCount(this.mapLoader.load(this.level + ".tmx"));
+    }
+
+    @Benchmark
+    public int tmx() {
+        return layerCount(this.headlessMapLoader.load(this.level + ".tmx"));
+    }
+
+    @Benchmark
+    public int lvlWithTileset() {
+        LevelData level = this.levelLoader.load(this.level + ".lvl");
+        return layerCount(level.getMap());
+    }
+
+    @Benchmark
+    public int lvl() {
+        LevelData level = this.headlessLevelLoader.load(this.level + ".lvl");
+        return layerCount(level.getMap());
+    }
+
+    private static int layerCount(TiledMap map) {
+        int layerCount = map.getLayers().getCount();
+        map.dispose();
+        return layerCount;
+    }
+}
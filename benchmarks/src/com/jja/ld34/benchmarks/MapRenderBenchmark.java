@@ -0,0 +1,73 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.graphics.StaticMapRenderer;
+import com.jja.ld34.headless.HeadlessLevelLoader;
+import com.jja.ld34.levels.LevelData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame map draw through a game-sized camera in the middle of each level: every visible tile re-batched by
+ * OrthogonalTiledMapRenderer vs. the chunks of StaticMapRenderer's SpriteCache. GL is a no-op here, so this is the
+ * CPU side of the frame only (vertex building and submission). staticBuild is the one-off cost at level load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MapRenderBenchmark {
+
+    @Param({"1-1", "1-2", "1-3", "1-4"})
+    public String level;
+
+    private LevelData levelData;
+    private OrthographicCamera camera;
+    private OrthogonalTiledMapRenderer batchedRenderer;
+    private StaticMapRenderer staticRenderer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+        this.levelData = new HeadlessLevelLoader().load(this.level + ".lvl");
+
+        this.camera = new OrthographicCamera(Ld34Game.GAME_WIDTH / Ld34Game.PIXELS_PER_METER, Ld34Game.GAME_HEIGHT / Ld34Game.PIXELS_PER_METER);
+        this.camera.position.set(8, 8, 0);    // the middle of a 50x50 tile map, in m
+        this.camera.update();
+
+        this.batchedRenderer = new OrthogonalTiledMapRenderer(this.levelData.getMap(), 1 / Ld34Game.PIXELS_PER_METER);
+        this.staticRenderer = new StaticMapRenderer(this.levelData.getMap(), 1 / Ld34Game.PIXELS_PER_METER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.batchedRenderer.dispose();
+        this.staticRenderer.dispose();
+        this.levelData.dispose();
+    }
+
+    @Benchmark
+    public void batched() {
+        this.batchedRenderer.setView(this.camera);
+        this.batchedRenderer.render();
+    }
+
+    @Benchmark
+    public int cached() {
+        this.staticRenderer.render(this.camera);
+        return this.staticRenderer.getLastDrawnChunkCount();
+    }
+
+    @Benchmark
+    public int staticBuild() {
+        StaticMapRenderer renderer = new StaticMapRenderer(this.levelData.getMap(), 1 / Ld34Game.PIXELS_PER_METER);
+        int chunkCount = renderer.getChunkCount();
+        renderer.dispose();
+        return chunkCount;
+    }
+}
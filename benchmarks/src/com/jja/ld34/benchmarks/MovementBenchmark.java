@@ -0,0 +1,74 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.Scheduler;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.Player;
+import com.jja.ld34.objects.TrumpClone;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state input and movement path: the player's input and animation frame, every clone making a move and
+ * picking its frame, and one step of AgentManager deciding which clones get to move. These should allocate nothing;
+ * AllocationCheck runs the same fixture and fails if they do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MovementBenchmark {
+
+    @Param({"100", "1000"})
+    public int cloneCount;
+
+    private World world;
+    private Player player;
+    private TrumpClone[] clones;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+
+        this.world = new World(new Vector2(0, 0), true);
+        this.player = new Player(this.world, new Vector2(0, 0));
+        this.clones = new TrumpClone[this.cloneCount];
+        for (int i = 0; i < this.cloneCount; i++) {
+            this.clones[i] = new TrumpClone(this.world, new Vector2((i % 100) * 48, (i / 100) * 48 + 48));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ObjectManager.deregisterAllObjects();
+        AgentManager.clear();
+        Scheduler.clear();
+        this.world.dispose();
+    }
+
+    @Benchmark
+    public void playerFrame() {
+        this.player.handleInput();
+        this.player.applyInput();
+        this.player.update(GameSimulation.TIME_STEP);
+    }
+
+    @Benchmark
+    public void cloneMoves() {
+        for (int i = 0; i < this.clones.length; i++) {
+            this.clones[i].handleInput();
+            this.clones[i].update(GameSimulation.TIME_STEP);
+        }
+    }
+
+    @Benchmark
+    public void agentStep() {
+        AgentManager.update(GameSimulation.TIME_STEP);
+    }
+}
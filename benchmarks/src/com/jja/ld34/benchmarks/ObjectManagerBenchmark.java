@@ -0,0 +1,90 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.Scheduler;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.TrumpClone;
+import com.jja.ld34.objects.TurretBulletPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// per-frame cost of the object update, transform and entity draw passes, half clones and half bullets
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ObjectManagerBenchmark {
+
+    private static final Vector2 BULLET_IMPULSE = new Vector2(0, 0);
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int objectCount;
+
+    private World world;
+    private SpriteBatch spriteBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+
+        this.world = new World(new Vector2(0, 0), true);
+        for (int i = 0; i < this.objectCount; i++) {
+            float x = (i % 100) * 48;
+            float y = (i / 100) * 48;
+            if (i % 2 == 0) {
+                new TrumpClone(this.world, new Vector2(x, y));
+            } else {
+                TurretBulletPool.obtain(this.world, x, y, BULLET_IMPULSE, SpriteSheets.getRegion(SpriteSheets.ENERGY_BALL));
+            }
+        }
+        this.spriteBatch = new SpriteBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ObjectManager.deregisterAllObjects();
+        TurretBulletPool.clear();
+        AgentManager.clear();
+        Scheduler.clear();
+        this.spriteBatch.dispose();
+        this.world.dispose();
+    }
+
+    @Benchmark
+    public void updateAllObjects() {
+        ObjectManager.updateAllObjects(GameSimulation.TIME_STEP);
+    }
+
+    // what a fixed step adds around World.step for every entity: position capture, body sync, update, interpolation
+    @Benchmark
+    public void stepBookkeeping() {
+        ObjectManager.captureEntityPositions();
+        ObjectManager.syncEntityTransforms();
+        ObjectManager.updateAllObjects(GameSimulation.TIME_STEP);
+        ObjectManager.interpolateAllEntities(0.5f);
+    }
+
+    @Benchmark
+    public void drawAllEntities() {
+        this.spriteBatch.begin();
+        ObjectManager.drawAllEntities(this.spriteBatch);
+        this.spriteBatch.end();
+    }
+
+    // same objects seen through a game-sized view over the first rows
+    @Benchmark
+    public void drawEntitiesInView() {
+        this.spriteBatch.begin();
+        ObjectManager.drawEntitiesInView(this.spriteBatch, 0, 0, Ld34Game.GAME_WIDTH / Ld34Game.PIXELS_PER_METER, Ld34Game.GAME_HEIGHT / Ld34Game.PIXELS_PER_METER);
+        this.spriteBatch.end();
+    }
+}
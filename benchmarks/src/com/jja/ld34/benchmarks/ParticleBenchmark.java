@@ -0,0 +1,61 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.objects.ParticleManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame cost of body-less particles: one step of movement and ageing plus interpolation, and drawing the ones in
+ * a screen-sized view. Particles live far longer than the run, so the count stays fixed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParticleBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int particleCount;
+
+    private SpriteBatch spriteBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+        this.spriteBatch = new SpriteBatch();
+
+        TextureRegion region = SpriteSheets.getRegion(SpriteSheets.ENERGY_BALL);
+        for (int i = 0; i < this.particleCount; i++) {
+            float x = (i % 250) * 0.064f;
+            float y = (i / 250 % 250) * 0.064f;
+            ParticleManager.spawn(x, y, ((i % 3) - 1) * 0.01f, ((i % 5) - 2) * 0.01f, 1e6f, 0.06f, 0.06f, region);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ParticleManager.clear();
+        this.spriteBatch.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        ParticleManager.update(GameSimulation.TIME_STEP);
+        ParticleManager.interpolate(0.5f);
+    }
+
+    @Benchmark
+    public void drawInView() {
+        this.spriteBatch.begin();
+        ParticleManager.drawInView(this.spriteBatch, 0, 0, Ld34Game.GAME_WIDTH / Ld34Game.PIXELS_PER_METER, Ld34Game.GAME_HEIGHT / Ld34Game.PIXELS_PER_METER);
+        this.spriteBatch.end();
+    }
+}
@@ -0,0 +1,30 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.jja.ld34.Trait;
+import com.jja.ld34.TraitModifiers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TraitBenchmark {
+
+    private final Random random = new RandomXS128(1);
+
+    @Benchmark
+    public long getRandomTraits() {
+        return Trait.getRandomTraits(this.random, 4);
+    }
+
+    @Benchmark
+    public TraitModifiers getRandomModifiers() {
+        return Trait.getRandomModifiers(this.random, 4);
+    }
+}
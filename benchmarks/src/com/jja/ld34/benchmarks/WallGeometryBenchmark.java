@@ -0,0 +1,86 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.Scheduler;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.WallCompiler;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.headless.HeadlessTmxMapLoader;
+import com.jja.ld34.objects.EnvironmentObject;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.TrumpClone;
+import com.jja.ld34.objects.TurretBulletPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// World.step against a level's walls built as one box body per rectangle vs. WallCompiler's chain loops
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WallGeometryBenchmark {
+
+    private static final int CLONE_COUNT = 200;
+    private static final int BULLET_COUNT = 200;
+
+    @Param({"1-1.tmx", "1-2.tmx", "1-3.tmx"})
+    public String mapFile;
+
+    @Param({"boxes", "chains"})
+    public String walls;
+
+    private World world;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+
+        this.world = new World(new Vector2(0, 0), true);
+        TiledMap map = new HeadlessTmxMapLoader().load(this.mapFile);
+        Array<Rectangle> rectangles = new Array<Rectangle>();
+        for (MapObject object : map.getLayers().get("walls").getObjects()) {
+            rectangles.add(((RectangleMapObject) object).getRectangle());
+        }
+        map.dispose();
+
+        if (this.walls.equals("chains")) {
+            new EnvironmentObject(this.world, WallCompiler.compile(this.world, rectangles));
+        } else {
+            for (Rectangle rectangle : rectangles) {
+                new EnvironmentObject(this.world, rectangle);
+            }
+        }
+
+        for (int i = 0; i < CLONE_COUNT; i++) {
+            new TrumpClone(this.world, BenchmarkEnvironment.scatter(i));
+        }
+        for (int i = 0; i < BULLET_COUNT; i++) {
+            Vector2 position = BenchmarkEnvironment.scatter(i + CLONE_COUNT);
+            TurretBulletPool.obtain(this.world, position.x, position.y, BenchmarkEnvironment.BULLET_IMPULSES[i % BenchmarkEnvironment.BULLET_IMPULSES.length], SpriteSheets.getRegion(SpriteSheets.ENERGY_BALL));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        ObjectManager.deregisterAllObjects();
+        TurretBulletPool.clear();
+        AgentManager.clear();
+        Scheduler.clear();
+        this.world.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        this.world.step(GameSimulation.TIME_STEP, 6, 2);
+    }
+}
@@ -0,0 +1,57 @@
+package com.jja.ld34.benchmarks;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.math.Vector2;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.headless.HeadlessAssets;
+import com.jja.ld34.objects.TrumpClone;
+import com.jja.ld34.objects.TurretBulletPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// one World.step on level 1 with extra clones and bullets scattered over the map; rebuilt every iteration
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WorldStepBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int cloneCount;
+
+    @Param({"10", "100", "1000"})
+    public int bulletCount;
+
+    private AssetManager assetManager;
+    private GameSimulation simulation;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkEnvironment.initialize();
+
+        this.assetManager = HeadlessAssets.newAssetManager();
+        this.simulation = new GameSimulation(this.assetManager, null);
+        for (int i = 0; i < this.cloneCount; i++) {
+            new TrumpClone(this.simulation.getWorld(), BenchmarkEnvironment.scatter(i));
+        }
+        for (int i = 0; i < this.bulletCount; i++) {
+            Vector2 position = BenchmarkEnvironment.scatter(i + this.cloneCount);
+            TurretBulletPool.obtain(this.simulation.getWorld(), position.x, position.y, BenchmarkEnvironment.BULLET_IMPULSES[i % BenchmarkEnvironment.BULLET_IMPULSES.length], SpriteSheets.getRegion(SpriteSheets.ENERGY_BALL));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        this.simulation.dispose();
+        this.assetManager.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        this.simulation.getWorld().step(GameSimulation.TIME_STEP, 6, 2);
+    }
+}
@@ -0,0 +1,88 @@
+package com.jja.ld34;
+
+import com.jja.ld34.objects.Object;
+
+/**
+ * Who reacts to touching whom, as tables of handlers indexed by the pair of FixtureFilterBit categories, one table
+ * per ContactEvents type. Handlers are one-sided: the handler registered for (category, other) is what an object of
+ * category does when it touches an object of other, so a pair where both sides react has two entries.
+ *
+ * {@link #dispatch(ContactEvents)} runs the handlers for every waiting event in bulk after World.step, so no game
+ * code runs inside the solver. Per-pair event counts of the last dispatch are kept for profiling.
+ */
+public class CollisionMatrix {
+
+    public interface Handler {
+        void onContact(Object self, Object other);
+    }
+
+    public static final int CATEGORY_COUNT = 16;    // Box2D category bits are a short
+
+    private static final int PAIR_COUNT = CATEGORY_COUNT * CATEGORY_COUNT;
+
+    private final Handler[][] handlers = new Handler[ContactEvents.Type.values().length][PAIR_COUNT];
+    private final int[] pairCounts = new int[PAIR_COUNT];
+    private int lastDispatchCount = 0;
+
+    // what an object of category does when it starts touching an object of any of otherCategories
+    public void register(short category, short otherCategories, Handler handler) {
+        register(ContactEvents.Type.BEGIN, category, otherCategories, handler);
+    }
+
+    // as above, for the given kind of event (e.g. PERSIST for "standing in" something); replaces any earlier handler
+    public void register(ContactEvents.Type type, short category, short otherCategories, Handler handler) {
+        Handler[] table = this.handlers[type.ordinal()];
+        int row = index(category) * CATEGORY_COUNT;
+        for (int other = 0; other < CATEGORY_COUNT; other++) {
+            if ((otherCategories & (1 << other)) != 0) {
+                table[row + other] = handler;
+            }
+        }
+    }
+
+    // runs the handlers of every waiting event, oldest first; doesn't drain them, so other systems can read them too
+    public void dispatch(ContactEvents events) {
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            this.pairCounts[i] = 0;
+        }
+
+        for (int i = 0; i < events.size(); i++) {
+            int categoryA = index(events.getCategoryA(i));
+            int categoryB = index(events.getCategoryB(i));
+            if (categoryA == -1 || categoryB == -1) {
+                continue;
+            }
+            this.pairCounts[categoryA * CATEGORY_COUNT + categoryB]++;
+
+            Handler[] table = this.handlers[events.getType(i).ordinal()];
+            Handler handlerA = table[categoryA * CATEGORY_COUNT + categoryB];
+            if (handlerA != null) {
+                handlerA.onContact(events.getObjectA(i), events.getObjectB(i));
+            }
+            Handler handlerB = table[categoryB * CATEGORY_COUNT + categoryA];
+            if (handlerB != null) {
+                handlerB.onContact(events.getObjectB(i), events.getObjectA(i));
+            }
+        }
+        this.lastDispatchCount = events.size();
+    }
+
+    public int getLastDispatchCount() {
+        return this.lastDispatchCount;
+    }
+
+    // events between the two categories in the last dispatch, either way round
+    public int getPairCount(short categoryA, short categoryB) {
+        int a = index(categoryA);
+        int b = index(categoryB);
+        if (a == -1 || b == -1) {
+            return 0;
+        }
+        return (a == b) ? this.pairCounts[a * CATEGORY_COUNT + b] : this.pairCounts[a * CATEGORY_COUNT + b] + this.pairCounts[b * CATEGORY_COUNT + a];
+    }
+
+    // an object's category is its lowest set bit
+    private static int index(short category) {
+        return (category == 0) ? -1 : Integer.numberOfTrailingZeros(category & 0xFFFF);
+    }
+}
@@ -0,0 +1,181 @@
+package com.jja.ld34;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.jja.ld34.objects.Object;
+
+/**
+ * Ring buffer of contact events, filled by the contact listener and drained by gameplay after World.step, so nothing
+ * reacts from inside the solver and nobody has to scan World.getContactList() to find what is still touching.
+ *
+ * BEGIN and END come from Box2D's begin/endContact; PERSIST comes from postSolve, once per step for every solid
+ * contact that is touching, with the largest normal impulse of its points. Events keep the fixtures' user data and
+ * category bits rather than the fixtures: END is also reported when a body is destroyed or deactivated (e.g. while
+ * dead objects are flushed), and libGDX reuses Fixture objects, so by the time that event is read the fixture may
+ * already be someone else's. For the same reason, an END's objects may already be destroyed or pooled.
+ */
+public class ContactEvents {
+
+    public enum Type {
+        BEGIN,
+        PERSIST,
+        END
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final int INITIAL_CAPACITY = 64;
+
+    // events, as parallel arrays used as a ring buffer
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private Object[] objectsA = new Object[INITIAL_CAPACITY];
+    private Object[] objectsB = new Object[INITIAL_CAPACITY];
+    private short[] categoriesA = new short[INITIAL_CAPACITY];
+    private short[] categoriesB = new short[INITIAL_CAPACITY];
+    private float[] impulses = new float[INITIAL_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    // per type, events drained by the last drain() and events since; for capacity planning
+    private final int[] lastDrainedCounts = new int[TYPES.length];
+    private final int[] pendingCounts = new int[TYPES.length];
+    private int peakSize = 0;
+
+    public void begin(Contact contact) {
+        add(Type.BEGIN, contact, 0);
+    }
+
+    public void persist(Contact contact, ContactImpulse impulse) {
+        float[] normalImpulses = impulse.getNormalImpulses();
+        float maxImpulse = 0;
+        for (int i = 0; i < impulse.getCount(); i++) {
+            maxImpulse = Math.max(maxImpulse, normalImpulses[i]);
+        }
+        add(Type.PERSIST, contact, maxImpulse);
+    }
+
+    public void end(Contact contact) {
+        add(Type.END, contact, 0);
+    }
+
+    // events waiting to be drained; index them 0 (oldest) to size() - 1 with the getters below
+    public int size() {
+        return this.size;
+    }
+
+    public Type getType(int index) {
+        return TYPES[this.types[slot(index)]];
+    }
+
+    public Object getObjectA(int index) {
+        return this.objectsA[slot(index)];
+    }
+
+    public Object getObjectB(int index) {
+        return this.objectsB[slot(index)];
+    }
+
+    public short getCategoryA(int index) {
+        return this.categoriesA[slot(index)];
+    }
+
+    public short getCategoryB(int index) {
+        return this.categoriesB[slot(index)];
+    }
+
+    // in N*s; 0 unless PERSIST
+    public float getImpulse(int index) {
+        return this.impulses[slot(index)];
+    }
+
+    // drops every waiting event, once everything that reads them has; call once per step
+    public void drain() {
+        for (int i = 0; i < this.size; i++) {
+            int slot = slot(i);
+            this.objectsA[slot] = this.objectsB[slot] = null;
+        }
+        this.head = (this.head + this.size) % this.types.length;
+        this.size = 0;
+
+        for (int i = 0; i < TYPES.length; i++) {
+            this.lastDrainedCounts[i] = this.pendingCounts[i];
+            this.pendingCounts[i] = 0;
+        }
+    }
+
+    public void clear() {
+        drain();
+        this.peakSize = 0;
+    }
+
+    public int getLastDrainedCount(Type type) {
+        return this.lastDrainedCounts[type.ordinal()];
+    }
+
+    public int getLastDrainedCount() {
+        int count = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            count += this.lastDrainedCounts[i];
+        }
+        return count;
+    }
+
+    // the most events ever waiting at once, i.e. how big the buffer had to get
+    public int getPeakSize() {
+        return this.peakSize;
+    }
+
+    private void add(Type type, Contact contact, float impulse) {
+        Fixture fixtureA = contact.getFixtureA();
+        Fixture fixtureB = contact.getFixtureB();
+        if (!(fixtureA.getUserData() instanceof Object) || !(fixtureB.getUserData() instanceof Object)) {
+            return;
+        }
+
+        if (this.size == this.types.length) {
+            grow();
+        }
+        int slot = slot(this.size);
+        this.types[slot] = (byte) type.ordinal();
+        this.objectsA[slot] = (Object) fixtureA.getUserData();
+        this.objectsB[slot] = (Object) fixtureB.getUserData();
+        this.categoriesA[slot] = fixtureA.getFilterData().categoryBits;
+        this.categoriesB[slot] = fixtureB.getFilterData().categoryBits;
+        this.impulses[slot] = impulse;
+        this.size++;
+
+        this.pendingCounts[type.ordinal()]++;
+        this.peakSize = Math.max(this.peakSize, this.size);
+    }
+
+    private int slot(int index) {
+        return (this.head + index) % this.types.length;
+    }
+
+    // unrolls the ring into arrays twice the size; events are never dropped
+    private void grow() {
+        int capacity = this.types.length * 2;
+        byte[] grownTypes = new byte[capacity];
+        Object[] grownObjectsA = new Object[capacity];
+        Object[] grownObjectsB = new Object[capacity];
+        short[] grownCategoriesA = new short[capacity];
+        short[] grownCategoriesB = new short[capacity];
+        float[] grownImpulses = new float[capacity];
+        for (int i = 0; i < this.size; i++) {
+            int slot = slot(i);
+            grownTypes[i] = this.types[slot];
+            grownObjectsA[i] = this.objectsA[slot];
+            grownObjectsB[i] = this.objectsB[slot];
+            grownCategoriesA[i] = this.categoriesA[slot];
+            grownCategoriesB[i] = this.categoriesB[slot];
+            grownImpulses[i] = this.impulses[slot];
+        }
+        this.types = grownTypes;
+        this.objectsA = grownObjectsA;
+        this.objectsB = grownObjectsB;
+        this.categoriesA = grownCategoriesA;
+        this.categoriesB = grownCategoriesB;
+        this.impulses = grownImpulses;
+        this.head = 0;
+    }
+}
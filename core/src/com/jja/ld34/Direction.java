@@ -0,0 +1,11 @@
+package com.jja.ld34;
+
+// the four movement directions; tables indexed by direction use ordinal()
+public enum Direction {
+    UP,
+    DOWN,
+    LEFT,
+    RIGHT;
+
+    public static final int COUNT = values().length;
+}
@@ -0,0 +1,76 @@
+package com.jja.ld34;
+
+/**
+ * Turns variable render-frame deltas into a whole number of fixed simulation steps, so physics runs at the same
+ * rate regardless of the display's refresh rate. Whatever is left over is exposed as an interpolation alpha for
+ * rendering between the last two simulated states.
+ */
+public class FixedTimestep {
+
+    public enum CatchUpPolicy {
+        DROP,   // throw away time the sub-step cap couldn't cover: the game slows down under load but never spirals
+        CARRY   // keep the backlog and work it off over the next frames, up to MAX_BACKLOG seconds
+    }
+
+    public static final float MAX_FRAME_DELTA = 0.25f;  // in s; anything longer (e.g. a debugger pause) is clamped
+    public static final float MAX_BACKLOG = 1f;  // in s
+
+    private final float step;
+    private int maxSubSteps;
+    private CatchUpPolicy catchUpPolicy;
+
+    private float accumulator;
+
+    public FixedTimestep(float step, int maxSubSteps, CatchUpPolicy catchUpPolicy) {
+        this.step = step;
+        this.maxSubSteps = maxSubSteps;
+        this.catchUpPolicy = catchUpPolicy;
+        this.accumulator = 0;
+    }
+
+    // adds a frame's worth of time and returns how many fixed steps to simulate for it
+    public int advance(float delta) {
+        this.accumulator += Math.min(Math.max(delta, 0), MAX_FRAME_DELTA);
+
+        int steps = Math.min((int) (this.accumulator / this.step), this.maxSubSteps);
+        this.accumulator -= steps * this.step;
+
+        if (this.accumulator >= this.step) {
+            if (this.catchUpPolicy == CatchUpPolicy.DROP) {
+                this.accumulator %= this.step;
+            } else {
+                this.accumulator = Math.min(this.accumulator, MAX_BACKLOG);
+            }
+        }
+        return steps;
+    }
+
+    // how far (0..1) the current frame is between the previous and the latest simulated state
+    public float getAlpha() {
+        return Math.min(this.accumulator / this.step, 1f);
+    }
+
+    public float getStep() {
+        return this.step;
+    }
+
+    public int getMaxSubSteps() {
+        return this.maxSubSteps;
+    }
+
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = Math.max(1, maxSubSteps);
+    }
+
+    public CatchUpPolicy getCatchUpPolicy() {
+        return this.catchUpPolicy;
+    }
+
+    public void setCatchUpPolicy(CatchUpPolicy catchUpPolicy) {
+        this.catchUpPolicy = catchUpPolicy;
+    }
+
+    public void reset() {
+        this.accumulator = 0;
+    }
+}
@@ -0,0 +1,373 @@
+package com.jja.ld34;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.PerformanceCounter;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.jja.ld34.objects.ClonePopulation;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.TurretBulletPool;
+
+/**
+ * Per-frame instrumentation, off until {@link #setEnabled(boolean)} (F3 in game). Each {@link Phase} is timed with a
+ * PerformanceCounter between begin/end calls; a phase that runs several times a frame (e.g. fixed steps) adds up.
+ * Once a frame, endFrame() samples Box2D, SpriteBatch and GLProfiler counts plus heap growth, and adds the frame's
+ * CPU time to a rolling histogram for p50/p99. While enabled, a summary row goes to a local CSV every few seconds.
+ */
+public class FrameProfiler {
+
+    public enum Phase {
+        INPUT("input"),
+        AI("ai"),
+        WORLD_STEP("world"),
+        CONTACTS("contacts"),
+        OBJECT_UPDATE("objects"),
+        MAP_RENDER("map"),
+        ENTITY_DRAW("entities"),
+        HUD_DRAW("hud");
+
+        public final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    public static final int WINDOW_SIZE = 600;  // frames, ~10 s at 60 fps
+    public static final float BUCKET_WIDTH = 0.25f;  // in ms
+    public static final int BUCKET_COUNT = 400;  // the last bucket also catches anything slower than 100 ms
+    public static final float EXPORT_INTERVAL = 5f;  // in s
+    public static final String EXPORT_FILE = "profile.csv";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final PerformanceCounter[] phaseCounters = new PerformanceCounter[PHASES.length];
+    private static final PerformanceCounter frameCounter = new PerformanceCounter("frame", WINDOW_SIZE);
+
+    static {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseCounters[i] = new PerformanceCounter(PHASES[i].label, WINDOW_SIZE);
+        }
+    }
+
+    private static boolean enabled = false;
+
+    // rolling histogram: the bucket of each of the last WINDOW_SIZE frames, and how many frames sit in each bucket
+    private static final int[] windowBuckets = new int[WINDOW_SIZE];
+    private static final int[] bucketCounts = new int[BUCKET_COUNT];
+    private static int windowIndex = 0;
+    private static int windowCount = 0;
+
+    // sampled once per frame
+    private static int bodyCount = 0;
+    private static int contactCount = 0;
+    private static int contactEvents = 0;
+    private static int pendingContactEvents = 0;
+    private static int aiDecisions = 0;
+    private static int pendingAiDecisions = 0;
+    private static int destroyedObjects = 0;
+    private static int pendingDestroyedObjects = 0;
+    private static int drawnEntities = 0;
+    private static int totalEntities = 0;
+    private static int renderCalls = 0;
+    private static int pendingRenderCalls = 0;
+    private static int textureBindings = 0;
+    private static int drawCalls = 0;
+    private static int shaderSwitches = 0;
+
+    // heap growth between frames is counted as allocation, a shrinking heap as a collection
+    private static long lastHeap = 0;
+    private static long allocatedBytes = 0;
+    private static float allocationTimer = 0;
+    private static float allocationRate = 0;  // in bytes/s
+    private static int gcCount = 0;
+
+    private static float elapsed = 0;
+    private static float exportTimer = 0;
+    private static boolean exportStarted = false;
+    private static boolean exportFailed = false;
+    private static final StringBuilder exportLine = new StringBuilder();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        if (enable == enabled) {
+            return;
+        }
+        enabled = enable;
+
+        if (enable) {
+            GLProfiler.enable();
+            reset();
+        } else {
+            GLProfiler.disable();
+        }
+    }
+
+    public static void reset() {
+        for (int i = 0; i < phaseCounters.length; i++) {
+            phaseCounters[i].reset();
+        }
+        frameCounter.reset();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = 0;
+        }
+        windowIndex = windowCount = 0;
+        allocatedBytes = 0;
+        allocationTimer = allocationRate = 0;
+        gcCount = 0;
+        lastHeap = Gdx.app.getJavaHeap();
+        elapsed = exportTimer = 0;
+        GLProfiler.reset();
+    }
+
+    public static void beginFrame() {
+        if (enabled) {
+            frameCounter.start();
+        }
+    }
+
+    public static void begin(Phase phase) {
+        if (enabled) {
+            phaseCounters[phase.ordinal()].start();
+        }
+    }
+
+    public static void end(Phase phase) {
+        if (enabled) {
+            phaseCounters[phase.ordinal()].stop();
+        }
+    }
+
+    // SpriteBatch.renderCalls only covers one begin/end, so each batch reports after its end()
+    public static void addRenderCalls(int calls) {
+        if (enabled) {
+            pendingRenderCalls += calls;
+        }
+    }
+
+    // contact events dispatched by each step of the frame
+    public static void addContactEvents(int events) {
+        if (enabled) {
+            pendingContactEvents += events;
+        }
+    }
+
+    // AI agents that thought in each step of the frame
+    public static void addAiDecisions(int decisions) {
+        if (enabled) {
+            pendingAiDecisions += decisions;
+        }
+    }
+
+    // objects destroyed by each step's flush of the frame
+    public static void addDestroyedObjects(int objects) {
+        if (enabled) {
+            pendingDestroyedObjects += objects;
+        }
+    }
+
+    public static void endFrame(float delta, World world) {
+        if (!enabled) {
+            return;
+        }
+
+        frameCounter.stop();
+        if (!frameCounter.valid) {
+            reset();    // enabled part-way through this frame, so there's nothing whole to record yet
+            return;
+        }
+        frameCounter.tick(delta);
+        for (int i = 0; i < phaseCounters.length; i++) {
+            PerformanceCounter counter = phaseCounters[i];
+            if (counter.valid) {
+                counter.tick(delta);
+            } else {
+                counter.time.put(0);    // phase didn't run this frame (e.g. no fixed step was due)
+            }
+        }
+        addToWindow(frameCounter.time.latest * 1000);
+
+        bodyCount = world.getBodyCount();
+        contactCount = world.getContactCount();
+        contactEvents = pendingContactEvents;
+        pendingContactEvents = 0;
+        aiDecisions = pendingAiDecisions;
+        pendingAiDecisions = 0;
+        destroyedObjects = pendingDestroyedObjects;
+        pendingDestroyedObjects = 0;
+        drawnEntities = ObjectManager.getLastDrawnEntityCount();
+        totalEntities = ObjectManager.getEntityCount();
+        renderCalls = pendingRenderCalls;
+        pendingRenderCalls = 0;
+        textureBindings = GLProfiler.textureBindings;
+        drawCalls = GLProfiler.drawCalls;
+        shaderSwitches = GLProfiler.shaderSwitches;
+        GLProfiler.reset();
+
+        long heap = Gdx.app.getJavaHeap();
+        if (heap >= lastHeap) {
+            allocatedBytes += heap - lastHeap;
+        } else {
+            gcCount++;
+        }
+        lastHeap = heap;
+        allocationTimer += delta;
+        if (allocationTimer >= 1) {
+            allocationRate = allocatedBytes / allocationTimer;
+            allocatedBytes = 0;
+            allocationTimer = 0;
+        }
+
+        elapsed += delta;
+        exportTimer += delta;
+        if (exportTimer >= EXPORT_INTERVAL) {
+            exportTimer = 0;
+            export();
+        }
+    }
+
+    // mean over the last WINDOW_SIZE frames, in ms
+    public static float getPhaseTime(Phase phase) {
+        return phaseCounters[phase.ordinal()].time.value * 1000;
+    }
+
+    public static float getFrameTime() {
+        return frameCounter.time.value * 1000;
+    }
+
+    // upper edge of the histogram bucket holding the given fraction (0..1) of recent frames, in ms
+    public static float getFrameTimePercentile(float fraction) {
+        if (windowCount == 0) {
+            return 0;
+        }
+        int target = Math.max(1, (int) Math.ceil(fraction * windowCount));
+        int seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += bucketCounts[i];
+            if (seen >= target) {
+                return (i + 1) * BUCKET_WIDTH;
+            }
+        }
+        return BUCKET_COUNT * BUCKET_WIDTH;
+    }
+
+    public static int getBodyCount() {
+        return bodyCount;
+    }
+
+    public static int getContactCount() {
+        return contactCount;
+    }
+
+    public static int getContactEvents() {
+        return contactEvents;
+    }
+
+    public static int getAiDecisions() {
+        return aiDecisions;
+    }
+
+    public static int getDestroyedObjects() {
+        return destroyedObjects;
+    }
+
+    public static int getDrawnEntities() {
+        return drawnEntities;
+    }
+
+    public static int getTotalEntities() {
+        return totalEntities;
+    }
+
+    public static int getRenderCalls() {
+        return renderCalls;
+    }
+
+    public static int getTextureBindings() {
+        return textureBindings;
+    }
+
+    public static int getDrawCalls() {
+        return drawCalls;
+    }
+
+    public static int getShaderSwitches() {
+        return shaderSwitches;
+    }
+
+    public static float getAllocationRate() {
+        return allocationRate;
+    }
+
+    public static int getGcCount() {
+        return gcCount;
+    }
+
+    // appends value with one decimal; String.format isn't available on GWT
+    public static StringBuilder appendFixed(StringBuilder builder, float value) {
+        int tenths = Math.round(value * 10);
+        if (tenths < 0) {
+            builder.append('-');
+            tenths = -tenths;
+        }
+        return builder.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    private static void addToWindow(float frameTime) {
+        int bucket = Math.min((int) (frameTime / BUCKET_WIDTH), BUCKET_COUNT - 1);
+        if (windowCount == WINDOW_SIZE) {
+            bucketCounts[windowBuckets[windowIndex]]--;
+        } else {
+            windowCount++;
+        }
+        windowBuckets[windowIndex] = bucket;
+        bucketCounts[bucket]++;
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+    }
+
+    private static void export() {
+        if (exportFailed || !Gdx.files.isLocalStorageAvailable()) {
+            return;
+        }
+
+        StringBuilder line = exportLine;
+        line.setLength(0);
+        if (!exportStarted) {
+            line.append("elapsed_s,objects,destroyed,tasks,frame_ms,p50_ms,p99_ms");
+            for (int i = 0; i < PHASES.length; i++) {
+                line.append(',').append(PHASES[i].label).append("_ms");
+            }
+            line.append(",bodies,contacts,drawn_entities,entities,render_calls,texture_binds,draw_calls,shader_switches,alloc_kb_s,gcs");
+            line.append(",clones,clones_queued,clones_pooled,bullets_pooled,bullet_pool_hits,bullet_pool_misses\n");
+        }
+
+        appendFixed(line, elapsed).append(',').append(ObjectManager.getObjectCount()).append(',').append(destroyedObjects)
+                .append(',').append(Scheduler.getLiveTaskCount()).append(',');
+        appendFixed(line, getFrameTime()).append(',');
+        appendFixed(line, getFrameTimePercentile(0.5f)).append(',');
+        appendFixed(line, getFrameTimePercentile(0.99f));
+        for (int i = 0; i < PHASES.length; i++) {
+            appendFixed(line.append(','), getPhaseTime(PHASES[i]));
+        }
+        line.append(',').append(bodyCount).append(',').append(contactCount)
+                .append(',').append(drawnEntities).append(',').append(totalEntities).append(',').append(renderCalls)
+                .append(',').append(textureBindings).append(',').append(drawCalls).append(',').append(shaderSwitches).append(',');
+        appendFixed(line, allocationRate / 1024).append(',').append(gcCount);
+        line.append(',').append(ClonePopulation.getLiveCount()).append(',').append(ClonePopulation.getQueuedCount())
+                .append(',').append(ClonePopulation.getFreeCount()).append(',').append(TurretBulletPool.getFreeCount())
+                .append(',').append(TurretBulletPool.getHitCount()).append(',').append(TurretBulletPool.getMissCount()).append('\n');
+
+        try {
+            // a new session starts a new file
+            Gdx.files.local(EXPORT_FILE).writeString(line.toString(), exportStarted);
+            exportStarted = true;
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("FrameProfiler", "Couldn't write " + EXPORT_FILE + ", export disabled", e);
+            exportFailed = true;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.jja.ld34;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.ai.FlowField;
+import com.jja.ld34.graphics.SpriteSheets;
+import com.jja.ld34.levels.LevelData;
+import com.jja.ld34.levels.LevelStreamer;
+import com.jja.ld34.objects.*;
+import com.jja.ld34.objects.Object;
+import com.jja.ld34.scenes.Hud;
+
+/**
+ * All of the gameplay, without any of the presentation: map loading, the Box2D world, entity spawning and updates,
+ * contacts and the level/respawn state machine. PlayScreen wraps this with rendering, the HUD and audio; headless
+ * runs drive it directly through {@link #step(float)} with no screen at all.
+ *
+ * Everything random in a run (player traits, clone moves) is drawn from streams split off one run seed, so a run
+ * replays exactly given the same seed and input; the seed is logged and exposed through {@link #getRunSeed()}.
+ */
+public class GameSimulation implements ContactListener, Disposable {
+
+    public static final float TIME_STEP = 1 / 60f;  // in s
+
+    public interface Listener {
+        void onLevelChanged(int level, TiledMap map);
+    }
+
+    public static Integer currentLevel = 1;
+
+    private LevelStreamer levels;
+    private LevelData level;
+    private TiledMap map;
+
+    private World world;
+    private Spawner spawner;
+    private final ContactEvents contactEvents = new ContactEvents();
+    private final CollisionMatrix collisions = new CollisionMatrix();
+
+    private Player player;
+    private FlowField chaseField;   // toward the player, for the clones
+
+    private final long runSeed;
+    private final RandomXS128 playerRandom;     // trait rolls
+
+    private Scheduler.Task gameStateTask;
+    private int numPlayerDeaths;
+    private boolean isGameOver;
+
+    private Listener listener;
+
+    public GameSimulation(AssetManager assetManager, Listener listener) {
+        this(assetManager, listener, MathUtils.random.nextLong());
+    }
+
+    public GameSimulation(AssetManager assetManager, Listener listener, long runSeed) {
+        this.runSeed = runSeed;
+        Gdx.app.log("GameSimulation", "run seed " + runSeed);
+        RandomXS128 seedRandom = new RandomXS128(runSeed);
+        this.playerRandom = new RandomXS128(seedRandom.nextLong());
+        ClonePopulation.setRandom(new RandomXS128(seedRandom.nextLong()));
+
+        this.levels = new LevelStreamer(assetManager);
+        this.listener = listener;
+
+        // keep the entity sprite sheets loaded for as long as this simulation lives
+        SpriteSheets.acquire();
+
+        currentLevel = 1;
+        this.levels.prefetch(0);    // nothing to overlap the first load with, so it's loaded right away
+        loadLevel(0);
+
+        this.world = new World(new Vector2(0, 0), true);
+        this.world.setContactListener(this);
+        registerCollisionHandlers();
+        this.spawner = new Spawner(this.world);
+
+        this.numPlayerDeaths = 0;
+        this.isGameOver = false;
+
+        populateWorld();
+        this.gameStateTask = new Scheduler.Task() {
+            @Override
+            public void run() {
+                if (isGameOver) {
+                    return;
+                }
+
+                updateGameState();
+            }
+        };
+        Scheduler.schedule(this.gameStateTask, 1, 1);
+        Hud.exitPartsCount = 0;
+        setNewTimeLeft();
+    }
+
+    // who reacts to touching whom; anything not listed here (walls, turrets) never reacts
+    private void registerCollisionHandlers() {
+        this.collisions.register(FixtureFilterBit.PROTAGONIST_BIT,
+                (short) (FixtureFilterBit.DEFAULT_BIT | FixtureFilterBit.ENEMY_BIT | FixtureFilterBit.PROJECTILE_BIT | FixtureFilterBit.TURRET_BIT),
+                new CollisionMatrix.Handler() {
+                    @Override
+                    public void onContact(Object self, Object other) {
+                        ((Player) self).kill();
+                    }
+                });
+        this.collisions.register(FixtureFilterBit.ENEMY_BIT,
+                (short) (FixtureFilterBit.DEFAULT_BIT | FixtureFilterBit.PROTAGONIST_BIT | FixtureFilterBit.PROJECTILE_BIT | FixtureFilterBit.TURRET_BIT),
+                new CollisionMatrix.Handler() {
+                    @Override
+                    public void onContact(Object self, Object other) {
+                        ((TrumpClone) self).kill();
+                    }
+                });
+        this.collisions.register(FixtureFilterBit.COLLECTIBLES_BIT, FixtureFilterBit.PROTAGONIST_BIT, new CollisionMatrix.Handler() {
+            @Override
+            public void onContact(Object self, Object other) {
+                ((CollectibleEntity) self).collect();
+            }
+        });
+        this.collisions.register(FixtureFilterBit.PROJECTILE_BIT, FixtureFilterBit.ALL_FLAGS, new CollisionMatrix.Handler() {
+            @Override
+            public void onContact(Object self, Object other) {
+                ((TurretBullet) self).hit();
+            }
+        });
+    }
+
+    // index into the level manifest; also starts prefetching the level after it
+    public void loadLevel(int index) {
+        this.level = this.levels.acquire(index);
+        this.map = this.level.getMap();
+        this.levels.prefetch(index + 1);
+    }
+
+    public void populateWorld() {
+        // the walls were merged into chain loops when the level was compiled
+        new EnvironmentObject(this.world, WallCompiler.createBody(this.world, this.level.getWallLoops()));
+        this.chaseField = FlowField.fromLevel(this.level);
+        ClonePopulation.setFlowField(this.chaseField);
+
+        this.spawner.setLevel(this.level);
+        this.spawner.spawnAll(LevelData.SpawnTable.EXIT_PART);
+        spawnPlayer();
+        this.spawner.spawnAll(LevelData.SpawnTable.EXIT);
+        this.spawner.spawnAll(LevelData.SpawnTable.TURRET);
+        this.spawner.spawnAll(LevelData.SpawnTable.TRUMP);
+    }
+
+    public void spawnPlayer() {
+        Array<Rectangle> spawns = this.level.getSpawns(LevelData.SpawnTable.BERNIE);
+        if (spawns.size > 0) {
+            Rectangle bounds = spawns.first();
+            this.player = new Player(this.world, new Vector2(bounds.x, bounds.y), this.playerRandom);
+        } else {
+            this.player = new Player(this.world, new Vector2(0, 0), this.playerRandom);
+            Gdx.app.error("GameSimulation", "Level has no 'berniespawn' spawnpoint! Fell back to spawning at (0, 0).");
+        }
+    }
+
+    // samples the keys; call once per frame, the player only moves on the next step
+    public void handleInput() {
+        if (this.player != null) {
+            this.player.handleInput();
+        }
+    }
+
+    public void updateGameState() {
+        // continue counting down time left
+        if (Hud.timeLeft > 0) {
+            Hud.timeLeft--;
+        }
+
+        if (Hud.timeLeft == 0) {    // respawn condition
+            if (this.player != null && !this.player.isDying()) {
+                this.player.kill();
+            }
+        }
+
+        if (this.player != null && this.player.isDestroyed()) {
+            this.numPlayerDeaths++;
+            if (setNewTimeLeft() == 0) {
+                // GAME OVER BITCH
+                // TODO: restart the current level
+                Gdx.app.error("GAME OVER", "Refresh to try again!");
+                isGameOver = true;
+            } else {
+                // if there isn't currently a player on the field and there's still time on the clock, spawn a new player
+                spawnPlayer();
+                ClonePopulation.queueRefill();  // also bring back the trumps that died, a few per step
+            }
+        }
+        
+        if(ExitPortal.hasBeenActivated){
+            ExitPortal.hasBeenActivated = false;
+            if (currentLevel >= this.levels.getLevelCount()) {
+                Gdx.app.log("GameSimulation", "No level after " + this.levels.getLevelName(currentLevel - 1) + "!");
+                return;
+            }
+
+            this.isGameOver = true;
+            ObjectManager.deregisterAllObjects();
+            ParticleManager.clear();
+            // the next level was prefetched when this one started, so this is normally just a hand-over
+            int previousLevel = currentLevel - 1;
+            currentLevel++;
+            loadLevel(currentLevel - 1);
+            this.levels.release(previousLevel);
+            populateWorld();
+            if (this.listener != null) {
+                this.listener.onLevelChanged(currentLevel, this.map);
+            }
+            numPlayerDeaths = 0;
+            Hud.exitPartsCount = 0;
+            setNewTimeLeft();
+            isGameOver = false;
+        }
+    }
+
+    public int setNewTimeLeft() {
+        int newTimeLeft = Math.max(((int) (60f / (this.numPlayerDeaths + 1))) - (this.numPlayerDeaths + 1), 0);
+        Hud.timeLeft = newTimeLeft;
+        return newTimeLeft;
+    }
+
+    public void step(float timeStep) {
+        // keep any background level load moving
+        this.levels.update();
+
+        // re-aim the clones; only searches when the player has moved to another tile
+        if (this.player != null && !this.player.isDying()) {
+            this.chaseField.setTarget(this.player.getCenterX(), this.player.getCenterY());
+        }
+
+        // input sampled since the last step, applied once per step whatever the frame rate
+        if (this.player != null) {
+            FrameProfiler.begin(FrameProfiler.Phase.INPUT);
+            this.player.applyInput();
+            FrameProfiler.end(FrameProfiler.Phase.INPUT);
+        }
+
+        // run any due timed tasks before stepping, so they never touch bodies mid-step
+        Scheduler.update(timeStep);
+        ClonePopulation.update();
+
+        FrameProfiler.begin(FrameProfiler.Phase.AI);
+        AgentManager.update(timeStep);
+        FrameProfiler.addAiDecisions(AgentManager.getLastDecisionCount());
+        FrameProfiler.end(FrameProfiler.Phase.AI);
+
+        // update world
+        ObjectManager.captureEntityPositions();
+        FrameProfiler.begin(FrameProfiler.Phase.WORLD_STEP);
+        this.world.step(timeStep, 6, 2);
+        ObjectManager.syncEntityTransforms();
+        FrameProfiler.end(FrameProfiler.Phase.WORLD_STEP);
+
+        FrameProfiler.begin(FrameProfiler.Phase.CONTACTS);
+        this.collisions.dispatch(this.contactEvents);
+        FrameProfiler.addContactEvents(this.contactEvents.size());
+        this.contactEvents.drain();
+        FrameProfiler.end(FrameProfiler.Phase.CONTACTS);
+
+        FrameProfiler.begin(FrameProfiler.Phase.OBJECT_UPDATE);
+        ObjectManager.updateAllObjects(timeStep);
+        ObjectManager.flushDestroyedObjects();
+        FrameProfiler.addDestroyedObjects(ObjectManager.getLastFlushedCount());
+        ParticleManager.update(timeStep);
+        FrameProfiler.end(FrameProfiler.Phase.OBJECT_UPDATE);
+    }
+
+    public TiledMap getMap() {
+        return this.map;
+    }
+
+    public World getWorld() {
+        return this.world;
+    }
+
+    public CollisionMatrix getCollisions() {
+        return this.collisions;
+    }
+
+    // what touched what since the last step; drained at the end of each step's contact dispatch
+    public ContactEvents getContactEvents() {
+        return this.contactEvents;
+    }
+
+    public FlowField getChaseField() {
+        return this.chaseField;
+    }
+
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    public boolean isGameOver() {
+        return this.isGameOver;
+    }
+
+    // pass it back in to replay this run
+    public long getRunSeed() {
+        return this.runSeed;
+    }
+
+    // the contact callbacks only record events; the handlers run from step() once World.step is done
+    @Override
+    public void beginContact(Contact contact) {
+        this.contactEvents.begin(contact);
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+        this.contactEvents.end(contact);
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+        this.contactEvents.persist(contact, impulse);
+    }
+
+    @Override
+    public void dispose() {
+        this.gameStateTask.cancel();
+        ObjectManager.deregisterAllObjects();
+        TurretBulletPool.clear();
+        ParticleManager.clear();
+        ClonePopulation.clear();
+        AgentManager.clear();
+        Scheduler.clear();
+        this.levels.dispose();
+        this.world.dispose();
+        this.contactEvents.clear();   // after the world, which reports ends for the bodies it destroys
+        SpriteSheets.release();
+    }
+}
@@ -0,0 +1,245 @@
+package com.jja.ld34;
+
+/**
+ * Single, frame-driven replacement for per-object libGDX Timers. Tasks only ever run from inside
+ * {@link #update(float)}, which PlayScreen calls from its update loop, so they run on the game timeline
+ * (never during World.step) and pause with it.
+ *
+ * Pending executions sit in a binary min-heap ordered by (execute time, scheduling order), which keeps runs
+ * deterministic. Cancelling is O(1): the task's generation is bumped and its stale heap entry is dropped when it
+ * reaches the top.
+ */
+public class Scheduler {
+
+    public abstract static class Task {
+
+        private int generation = 0;
+        private boolean scheduled = false;
+        private boolean repeating = false;
+        private float interval = 0;
+
+        public abstract void run();
+
+        public void cancel() {
+            Scheduler.cancel(this);
+        }
+
+        public boolean isScheduled() {
+            return this.scheduled;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static float time = 0;
+    private static long nextSequence = 0;
+    private static int liveTaskCount = 0;
+
+    // heap entries, stored as parallel arrays so scheduling doesn't allocate
+    private static Task[] heapTasks = new Task[INITIAL_CAPACITY];
+    private static float[] heapTimes = new float[INITIAL_CAPACITY];
+    private static long[] heapSequences = new long[INITIAL_CAPACITY];
+    private static int[] heapGenerations = new int[INITIAL_CAPACITY];
+    private static int heapSize = 0;
+
+    // repeating tasks that ran this update; re-queued afterwards so each runs at most once per update
+    private static Task[] repeatTasks = new Task[INITIAL_CAPACITY];
+    private static float[] repeatTimes = new float[INITIAL_CAPACITY];
+    private static int[] repeatGenerations = new int[INITIAL_CAPACITY];
+    private static int repeatCount = 0;
+
+    // runs the task once after delay seconds
+    public static void schedule(Task task, float delay) {
+        schedule(task, delay, false, 0);
+    }
+
+    // runs the task after delay seconds, then every interval seconds (every update if interval is 0) until cancelled
+    public static void schedule(Task task, float delay, float interval) {
+        schedule(task, delay, true, interval);
+    }
+
+    private static void schedule(Task task, float delay, boolean repeating, float interval) {
+        if (!task.scheduled) {
+            liveTaskCount++;
+        }
+        // bumping the generation orphans any entry left over from a previous schedule of the same task
+        task.generation++;
+        task.scheduled = true;
+        task.repeating = repeating;
+        task.interval = Math.max(0, interval);
+        push(task, time + Math.max(0, delay), task.generation);
+    }
+
+    public static void cancel(Task task) {
+        if (!task.scheduled) {
+            return;
+        }
+        task.generation++;
+        task.scheduled = false;
+        liveTaskCount--;
+    }
+
+    public static void update(float delta) {
+        time += delta;
+
+        while (heapSize > 0 && heapTimes[0] <= time) {
+            Task task = heapTasks[0];
+            float executeTime = heapTimes[0];
+            int generation = heapGenerations[0];
+            pop();
+
+            if (generation != task.generation) {
+                continue;   // cancelled or rescheduled since this entry was queued
+            }
+
+            if (task.repeating) {
+                queueRepeat(task, Math.max(executeTime + task.interval, time), generation);
+            } else {
+                task.scheduled = false;
+                liveTaskCount--;
+            }
+
+            task.run();
+        }
+
+        for (int i = 0; i < repeatCount; i++) {
+            Task task = repeatTasks[i];
+            // skip tasks that cancelled or rescheduled themselves while running
+            if (repeatGenerations[i] == task.generation) {
+                push(task, repeatTimes[i], repeatGenerations[i]);
+            }
+            repeatTasks[i] = null;
+        }
+        repeatCount = 0;
+    }
+
+    // drops every task, e.g. when the world they were driving goes away
+    public static void clear() {
+        for (int i = 0; i < heapSize; i++) {
+            Task task = heapTasks[i];
+            if (heapGenerations[i] == task.generation) {
+                task.generation++;
+                task.scheduled = false;
+            }
+            heapTasks[i] = null;
+        }
+        for (int i = 0; i < repeatCount; i++) {
+            Task task = repeatTasks[i];
+            if (repeatGenerations[i] == task.generation) {
+                task.generation++;
+                task.scheduled = false;
+            }
+            repeatTasks[i] = null;
+        }
+        heapSize = repeatCount = 0;
+        liveTaskCount = 0;
+    }
+
+    public static int getLiveTaskCount() {
+        return liveTaskCount;
+    }
+
+    public static float getTime() {
+        return time;
+    }
+
+    private static void queueRepeat(Task task, float executeTime, int generation) {
+        if (repeatCount == repeatTasks.length) {
+            Task[] tasks = new Task[repeatCount * 2];
+            float[] times = new float[repeatCount * 2];
+            int[] generations = new int[repeatCount * 2];
+            System.arraycopy(repeatTasks, 0, tasks, 0, repeatCount);
+            System.arraycopy(repeatTimes, 0, times, 0, repeatCount);
+            System.arraycopy(repeatGenerations, 0, generations, 0, repeatCount);
+            repeatTasks = tasks;
+            repeatTimes = times;
+            repeatGenerations = generations;
+        }
+        repeatTasks[repeatCount] = task;
+        repeatTimes[repeatCount] = executeTime;
+        repeatGenerations[repeatCount] = generation;
+        repeatCount++;
+    }
+
+    private static void push(Task task, float executeTime, int generation) {
+        if (heapSize == heapTasks.length) {
+            int capacity = heapSize * 2;
+            Task[] tasks = new Task[capacity];
+            float[] times = new float[capacity];
+            long[] sequences = new long[capacity];
+            int[] generations = new int[capacity];
+            System.arraycopy(heapTasks, 0, tasks, 0, heapSize);
+            System.arraycopy(heapTimes, 0, times, 0, heapSize);
+            System.arraycopy(heapSequences, 0, sequences, 0, heapSize);
+            System.arraycopy(heapGenerations, 0, generations, 0, heapSize);
+            heapTasks = tasks;
+            heapTimes = times;
+            heapSequences = sequences;
+            heapGenerations = generations;
+        }
+
+        int index = heapSize++;
+        set(index, task, executeTime, nextSequence++, generation);
+        siftUp(index);
+    }
+
+    private static void pop() {
+        int last = --heapSize;
+        if (last > 0) {
+            set(0, heapTasks[last], heapTimes[last], heapSequences[last], heapGenerations[last]);
+            heapTasks[last] = null;
+            siftDown(0);
+        } else {
+            heapTasks[0] = null;
+        }
+    }
+
+    private static void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >> 1;
+            if (!before(index, parent)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= heapSize) {
+                break;
+            }
+            int smallest = (left + 1 < heapSize && before(left + 1, left)) ? left + 1 : left;
+            if (!before(smallest, index)) {
+                break;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static boolean before(int a, int b) {
+        if (heapTimes[a] != heapTimes[b]) {
+            return heapTimes[a] < heapTimes[b];
+        }
+        return heapSequences[a] < heapSequences[b];
+    }
+
+    private static void swap(int a, int b) {
+        Task task = heapTasks[a];
+        float executeTime = heapTimes[a];
+        long sequence = heapSequences[a];
+        int generation = heapGenerations[a];
+        set(a, heapTasks[b], heapTimes[b], heapSequences[b], heapGenerations[b]);
+        set(b, task, executeTime, sequence, generation);
+    }
+
+    private static void set(int index, Task task, float executeTime, long sequence, int generation) {
+        heapTasks[index] = task;
+        heapTimes[index] = executeTime;
+        heapSequences[index] = sequence;
+        heapGenerations[index] = generation;
+    }
+}
@@ -0,0 +1,97 @@
+package com.jja.ld34;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.jja.ld34.levels.LevelData;
+import com.jja.ld34.objects.*;
+
+/**
+ * Creates a level's entities from its spawn tables. Which class a table becomes is decided here, once; how many
+ * there are and how they're tuned comes from each spawn's Archetype. Prototypes are built per archetype when a level
+ * is set, so spawning a table is one pass over flat arrays with no name lookups, however many entities it makes.
+ * Clone spawns become ClonePopulation spawn points, which keep them topped up from then on.
+ */
+public class Spawner {
+
+    private final World world;
+    private LevelData level;
+
+    // indexed like the level's turret archetypes
+    private Turret.Prototype[] turretPrototypes = new Turret.Prototype[0];
+
+    public Spawner(World world) {
+        this.world = world;
+    }
+
+    public void setLevel(LevelData level) {
+        this.level = level;
+
+        Array<Archetype> cloneArchetypes = level.getArchetypes(LevelData.SpawnTable.TRUMP);
+        TrumpClone.Prototype[] clonePrototypes = new TrumpClone.Prototype[cloneArchetypes.size];
+        for (int i = 0; i < cloneArchetypes.size; i++) {
+            clonePrototypes[i] = new TrumpClone.Prototype(cloneArchetypes.get(i));
+        }
+
+        ClonePopulation.setWorld(this.world);
+        ClonePopulation.clearSpawnPoints();
+        Array<Rectangle> cloneSpawns = level.getSpawns(LevelData.SpawnTable.TRUMP);
+        for (int i = 0; i < cloneSpawns.size; i++) {
+            Rectangle bounds = cloneSpawns.get(i);
+            int archetype = level.getArchetypeIndex(LevelData.SpawnTable.TRUMP, i);
+            ClonePopulation.addSpawnPoint(bounds.x, bounds.y, cloneArchetypes.get(archetype).getInt(Archetype.Property.COUNT),
+                    cloneArchetypes.get(archetype).get(Archetype.Property.SPACING), clonePrototypes[archetype]);
+        }
+
+        Array<Archetype> turretArchetypes = level.getArchetypes(LevelData.SpawnTable.TURRET);
+        this.turretPrototypes = new Turret.Prototype[turretArchetypes.size];
+        for (int i = 0; i < turretArchetypes.size; i++) {
+            this.turretPrototypes[i] = new Turret.Prototype(turretArchetypes.get(i));
+        }
+    }
+
+    // spawns everything in the table, COUNT entities per spawn laid out in a square grid; returns how many
+    public int spawnAll(LevelData.SpawnTable table) {
+        if (table == LevelData.SpawnTable.TRUMP) {
+            return ClonePopulation.fillAll();
+        }
+
+        Array<Rectangle> spawns = this.level.getSpawns(table);
+        Array<Archetype> archetypes = this.level.getArchetypes(table);
+        int spawned = 0;
+        for (int i = 0; i < spawns.size; i++) {
+            Rectangle bounds = spawns.get(i);
+            int archetypeIndex = this.level.getArchetypeIndex(table, i);
+            Archetype archetype = archetypes.get(archetypeIndex);
+
+            int count = archetype.getInt(Archetype.Property.COUNT);
+            float spacing = archetype.get(Archetype.Property.SPACING);
+            for (int n = 0; n < count; n++) {
+                // entities may keep their position, so each gets its own
+                spawn(table, archetypeIndex, ClonePopulation.getSlotPosition(bounds.x, bounds.y, n, count, spacing, new Vector2()));
+            }
+            spawned += count;
+        }
+        return spawned;
+    }
+
+    private void spawn(LevelData.SpawnTable table, int archetype, Vector2 position) {
+        switch (table) {
+            case TURRET:
+                new Turret(this.world, position, GameSimulation.currentLevel, this.turretPrototypes[archetype]);
+                break;
+            case EXIT_PART:
+                new ExitPart(this.world, position);
+                break;
+            case EXIT:
+                position.x += 15;
+                new ExitPortal(this.world, position);
+                break;
+            default:
+                Gdx.app.error("Spawner", "Can't spawn from '" + table.layerName + "'; players are spawned by GameSimulation, clones by ClonePopulation");
+                break;
+        }
+    }
+}
@@ -1,43 +1,107 @@
 package com.jja.ld34;
 
+import com.jja.ld34.graphics.SpriteSheets;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * Each trait declares what it does to the player: how it remaps the movement keys, what it multiplies the movement
+ * speed and friction by, and which sprite sheet it dresses the player in (null to leave it alone). A player's traits
+ * are compiled into one TraitModifiers table when it spawns, so adding traits costs nothing per frame.
+ *
+ * Traits in a shared exclusion group (e.g. the ones that swap the sprite sheet) are never rolled together. Rolls come
+ * from the caller's Random, so a seeded run rolls the same traits every time.
+ */
 public enum Trait {
 
-    SLIPPERY(2),
-    HYPER(2),
-    NAKED(2),
-    REDTIE(2),
-    COLONEL(2),
-    REVERSE(2);
+    //         probability, exclusion groups,       input remap,     speed, friction, sprite sheet
+    SLIPPERY(2,             0,                      null,            1f,    0.05f,    null),
+    HYPER(2,                0,                      null,            2f,    1f,       null),
+    NAKED(2,                Group.APPEARANCE,       null,            1f,    1f,       SpriteSheets.BERNIE_NAKED),
+    REDTIE(2,               Group.APPEARANCE,       null,            1f,    1f,       SpriteSheets.BERNIE_REDTIE),
+    COLONEL(2,              Group.APPEARANCE,       null,            1f,    1f,       SpriteSheets.BERNIE_COLONEL),
+    REVERSE(2,              0,                      new Direction[] {Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT}, 1f, 1f, null);
+
+    // exclusion groups, as bits; at most one trait of each group is rolled
+    public static class Group {
+        public static final int APPEARANCE = 1; // we only currently support one change in base player texture, so no red tie colonels, sorry!
+    }
 
-    private static Random rand = new Random();
+    private static final Trait[] TRAITS = Trait.values();
 
     private int probability;
+    private final int exclusionGroups;
+
+    public final long bit;  // this trait's flag in a trait mask
+
+    // for each movement direction, by ordinal, the direction whose key moves that way instead; null to keep them
+    final Direction[] inputRemap;
+    final float speedMultiplier;
+    final float frictionMultiplier;
+    final String spriteSheet;
 
-    Trait(int probability) {
+    Trait(int probability, int exclusionGroups, Direction[] inputRemap, float speedMultiplier, float frictionMultiplier, String spriteSheet) {
+        // a shift past the mask's width would silently wrap onto an earlier trait's bit
+        if (ordinal() >= Long.SIZE) {
+            throw new IllegalStateException("A trait mask holds at most " + Long.SIZE + " traits; " + name() + " doesn't fit");
+        }
         this.probability = probability;
+        this.exclusionGroups = exclusionGroups;
+        this.bit = 1L << ordinal();
+        this.inputRemap = inputRemap;
+        this.speedMultiplier = speedMultiplier;
+        this.frictionMultiplier = frictionMultiplier;
+        this.spriteSheet = spriteSheet;
     }
 
-    public static List<Trait> getRandomTraits(int count) {
-        List<Trait> traits = new ArrayList<Trait>();
-        for (Trait trait : Trait.values()) {
-            if ((trait == NAKED && (traits.contains(REDTIE) || traits.contains(COLONEL))) ||
-                    (trait == REDTIE && (traits.contains(NAKED) || traits.contains(COLONEL))) ||
-                    (trait == COLONEL && (traits.contains(NAKED) || traits.contains(REDTIE)))) {
-                // we only currently support only one change in base player texture, so no red tie colonels, sorry!
+    // the traits as a bit mask, so lookups on a hot path are a single AND instead of a list scan
+    public static long toMask(List<Trait> traits) {
+        long mask = 0;
+        for (int i = 0; i < traits.size(); i++) {
+            mask |= traits.get(i).bit;
+        }
+        return mask;
+    }
+
+    public static boolean contains(long mask, Trait trait) {
+        return (mask & trait.bit) != 0;
+    }
+
+    // the traits in the mask, in declaration order
+    public static List<Trait> fromMask(long mask) {
+        List<Trait> traits = new ArrayList<Trait>(Long.bitCount(mask));
+        for (int i = 0; i < TRAITS.length; i++) {
+            if ((mask & TRAITS[i].bit) != 0) {
+                traits.add(TRAITS[i]);
+            }
+        }
+        return traits;
+    }
+
+    // rolls up to count traits and compiles them into the table a player moves by
+    public static TraitModifiers getRandomModifiers(Random random, int count) {
+        return TraitModifiers.compile(getRandomTraits(random, count));
+    }
+
+    // rolls up to count traits, as a mask; allocates nothing
+    public static long getRandomTraits(Random random, int count) {
+        long mask = 0;
+        int takenGroups = 0;
+        int rolled = 0;
+        for (int i = 0; i < TRAITS.length && rolled < count; i++) {
+            Trait trait = TRAITS[i];
+            if ((takenGroups & trait.exclusionGroups) != 0) {
                 continue;
             }
 
-            if (rand.nextInt(trait.probability) == 0) {
-                traits.add(trait);
-                if (traits.size() >= count) {
-                    break;
-                }
+            if (random.nextInt(trait.probability) == 0) {
+                mask |= trait.bit;
+                takenGroups |= trait.exclusionGroups;
+                rolled++;
             }
         }
-        return traits;
+        return mask;
     }
 }
@@ -0,0 +1,89 @@
+package com.jja.ld34;
+
+import com.badlogic.gdx.Input;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The combined effect of a set of traits, resolved once when the traits are rolled and immutable from then on.
+ * Stacked traits compose: key remaps are applied in turn, multipliers multiply, and the first trait with a sprite
+ * sheet picks it. Reading it is a field or array access, however many traits went in.
+ */
+public class TraitModifiers {
+
+    // indexed by Direction ordinal
+    private static final int[] BASE_KEYS = {Input.Keys.UP, Input.Keys.DOWN, Input.Keys.LEFT, Input.Keys.RIGHT};
+
+    private final List<Trait> traits;
+    private final long mask;
+    private final int[] keys;
+    private final float speedMultiplier;
+    private final float frictionMultiplier;
+    private final String spriteSheet;
+
+    private TraitModifiers(List<Trait> traits, int[] keys, float speedMultiplier, float frictionMultiplier, String spriteSheet) {
+        this.traits = Collections.unmodifiableList(new ArrayList<Trait>(traits));
+        this.mask = Trait.toMask(traits);
+        this.keys = keys;
+        this.speedMultiplier = speedMultiplier;
+        this.frictionMultiplier = frictionMultiplier;
+        this.spriteSheet = spriteSheet;
+    }
+
+    public static TraitModifiers compile(long traitMask) {
+        return compile(Trait.fromMask(traitMask));
+    }
+
+    public static TraitModifiers compile(List<Trait> traits) {
+        int[] keys = BASE_KEYS.clone();
+        float speedMultiplier = 1f;
+        float frictionMultiplier = 1f;
+        String spriteSheet = null;
+
+        for (int i = 0; i < traits.size(); i++) {
+            Trait trait = traits.get(i);
+            if (trait.inputRemap != null) {
+                int[] remapped = new int[Direction.COUNT];
+                for (int direction = 0; direction < Direction.COUNT; direction++) {
+                    remapped[direction] = keys[trait.inputRemap[direction].ordinal()];
+                }
+                keys = remapped;
+            }
+            speedMultiplier *= trait.speedMultiplier;
+            frictionMultiplier *= trait.frictionMultiplier;
+            if (spriteSheet == null) {
+                spriteSheet = trait.spriteSheet;
+            }
+        }
+
+        return new TraitModifiers(traits, keys, speedMultiplier, frictionMultiplier, spriteSheet);
+    }
+
+    public List<Trait> getTraits() {
+        return this.traits;
+    }
+
+    public boolean contains(Trait trait) {
+        return Trait.contains(this.mask, trait);
+    }
+
+    // the key that moves in the given direction
+    public int getKey(Direction direction) {
+        return this.keys[direction.ordinal()];
+    }
+
+    public float getSpeedMultiplier() {
+        return this.speedMultiplier;
+    }
+
+    public float getFrictionMultiplier() {
+        return this.frictionMultiplier;
+    }
+
+    // the sprite sheet to use instead of the default, or the default if no trait picks one
+    public String getSpriteSheet(String defaultSpriteSheet) {
+        return (this.spriteSheet != null) ? this.spriteSheet : defaultSpriteSheet;
+    }
+}
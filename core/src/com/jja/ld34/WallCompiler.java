@@ -0,0 +1,220 @@
+package com.jja.ld34;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Turns a level's wall rectangles into one static body made of ChainShape loops, instead of one body and box per
+ * rectangle. The rectangles are unioned on a grid of their own (compressed) edge coordinates, so walls don't have to
+ * be tile aligned; the outline of every solid cell next to an empty one is then traced into closed loops, with
+ * collinear runs merged into single edges. Chains also stop bodies snagging on the seams between touching boxes.
+ */
+public class WallCompiler {
+
+    private static final float EPSILON = 1f;  // in px; rectangle edges closer than this are treated as one (Box2D rejects near-duplicate chain vertices)
+
+    private static final int EAST = 0;
+    private static final int NORTH = 1;
+    private static final int WEST = 2;
+    private static final int SOUTH = 3;
+
+    public static Body compile(World world, Array<Rectangle> walls) {
+        return createBody(world, compileLoops(walls));
+    }
+
+    // builds the static wall body from loops made by compileLoops()
+    public static Body createBody(World world, Array<float[]> loops) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        Body body = world.createBody(bodyDef);
+
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.filter.categoryBits = FixtureFilterBit.ENVIRONMENT_BIT;
+        fixtureDef.filter.maskBits = FixtureFilterBit.ALL_FLAGS;
+
+        int proxyCount = 0;
+        for (float[] loop : loops) {
+            float[] vertices = new float[loop.length];
+            for (int i = 0; i < loop.length; i++) {
+                vertices[i] = loop[i] / Ld34Game.PIXELS_PER_METER;
+            }
+
+            ChainShape shape = new ChainShape();
+            shape.createLoop(vertices);
+            fixtureDef.shape = shape;
+            body.createFixture(fixtureDef);
+            shape.dispose();
+
+            proxyCount += loop.length / 2;    // a loop has one edge (and broadphase proxy) per corner
+        }
+
+        Gdx.app.log("WallCompiler", "1 wall body, " + loops.size + " chain loops, " + proxyCount + " proxies");
+        return body;
+    }
+
+    /**
+     * Returns the outline of the union of the given rectangles as closed loops of corner coordinates
+     * (x0, y0, x1, y1, ...), in px. This is the expensive part, so levels can run it ahead of time.
+     */
+    public static Array<float[]> compileLoops(Array<Rectangle> walls) {
+        Array<float[]> loops = new Array<float[]>();
+        if (walls.size == 0) {
+            return loops;
+        }
+
+        float[] xs = compressedCoordinates(walls, true);
+        float[] ys = compressedCoordinates(walls, false);
+        int columns = xs.length - 1;
+        int rows = ys.length - 1;
+
+        // union: mark every grid cell covered by some rectangle
+        boolean[] solid = new boolean[columns * rows];
+        for (Rectangle wall : walls) {
+            int x0 = indexOf(xs, wall.x);
+            int x1 = indexOf(xs, wall.x + wall.width);
+            int y0 = indexOf(ys, wall.y);
+            int y1 = indexOf(ys, wall.y + wall.height);
+            for (int y = y0; y < y1; y++) {
+                for (int x = x0; x < x1; x++) {
+                    solid[y * columns + x] = true;
+                }
+            }
+        }
+
+        // boundary edges between grid vertices, running counter-clockwise around the solid cells (solid on the left)
+        int vertexColumns = columns + 1;
+        IntArray edgeStarts = new IntArray();
+        IntArray edgeDirections = new IntArray();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                if (!solid[y * columns + x]) {
+                    continue;
+                }
+                if (y == 0 || !solid[(y - 1) * columns + x]) {
+                    edgeStarts.add(y * vertexColumns + x);
+                    edgeDirections.add(EAST);
+                }
+                if (x == columns - 1 || !solid[y * columns + x + 1]) {
+                    edgeStarts.add(y * vertexColumns + x + 1);
+                    edgeDirections.add(NORTH);
+                }
+                if (y == rows - 1 || !solid[(y + 1) * columns + x]) {
+                    edgeStarts.add((y + 1) * vertexColumns + x + 1);
+                    edgeDirections.add(WEST);
+                }
+                if (x == 0 || !solid[y * columns + x - 1]) {
+                    edgeStarts.add((y + 1) * vertexColumns + x);
+                    edgeDirections.add(SOUTH);
+                }
+            }
+        }
+
+        // a vertex has two outgoing edges only where two solid cells touch diagonally
+        int[] firstOutgoing = new int[vertexColumns * (rows + 1)];
+        int[] secondOutgoing = new int[firstOutgoing.length];
+        for (int i = 0; i < firstOutgoing.length; i++) {
+            firstOutgoing[i] = secondOutgoing[i] = -1;
+        }
+        for (int i = 0; i < edgeStarts.size; i++) {
+            int vertex = edgeStarts.get(i);
+            if (firstOutgoing[vertex] == -1) {
+                firstOutgoing[vertex] = i;
+            } else {
+                secondOutgoing[vertex] = i;
+            }
+        }
+
+        boolean[] traced = new boolean[edgeStarts.size];
+        IntArray loopEdges = new IntArray();
+        FloatArray loopVertices = new FloatArray();
+        for (int first = 0; first < edgeStarts.size; first++) {
+            if (traced[first]) {
+                continue;
+            }
+
+            loopEdges.clear();
+            int edge = first;
+            while (edge != -1 && !traced[edge]) {
+                traced[edge] = true;
+                loopEdges.add(edge);
+                edge = nextEdge(edge, edgeStarts, edgeDirections, firstOutgoing, secondOutgoing, traced, vertexColumns);
+            }
+
+            // keep only the corners
+            loopVertices.clear();
+            for (int i = 0; i < loopEdges.size; i++) {
+                int current = loopEdges.get(i);
+                int previous = loopEdges.get((i + loopEdges.size - 1) % loopEdges.size);
+                if (edgeDirections.get(current) != edgeDirections.get(previous)) {
+                    int vertex = edgeStarts.get(current);
+                    loopVertices.add(xs[vertex % vertexColumns]);
+                    loopVertices.add(ys[vertex / vertexColumns]);
+                }
+            }
+            if (loopVertices.size >= 6) {
+                loops.add(loopVertices.toArray());
+            }
+        }
+        return loops;
+    }
+
+    private static int nextEdge(int edge, IntArray edgeStarts, IntArray edgeDirections, int[] firstOutgoing, int[] secondOutgoing, boolean[] traced, int vertexColumns) {
+        int direction = edgeDirections.get(edge);
+        int vertex = edgeStarts.get(edge);
+        if (direction == EAST) {
+            vertex += 1;
+        } else if (direction == NORTH) {
+            vertex += vertexColumns;
+        } else if (direction == WEST) {
+            vertex -= 1;
+        } else {
+            vertex -= vertexColumns;
+        }
+
+        int first = firstOutgoing[vertex];
+        int second = secondOutgoing[vertex];
+        if (second == -1 || traced[second]) {
+            return first;
+        }
+        if (traced[first]) {
+            return second;
+        }
+        // at a diagonal touch, turn left so each loop stays around its own cell instead of crossing over
+        return (edgeDirections.get(second) == (direction + 1) % 4) ? second : first;
+    }
+
+    private static float[] compressedCoordinates(Array<Rectangle> walls, boolean horizontal) {
+        FloatArray coordinates = new FloatArray(walls.size * 2);
+        for (Rectangle wall : walls) {
+            coordinates.add(horizontal ? wall.x : wall.y);
+            coordinates.add(horizontal ? wall.x + wall.width : wall.y + wall.height);
+        }
+        coordinates.sort();
+
+        FloatArray unique = new FloatArray(coordinates.size);
+        for (int i = 0; i < coordinates.size; i++) {
+            if (unique.size == 0 || coordinates.get(i) - unique.peek() > EPSILON) {
+                unique.add(coordinates.get(i));
+            }
+        }
+        return unique.toArray();
+    }
+
+    private static int indexOf(float[] coordinates, float value) {
+        int low = 0;
+        int high = coordinates.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (coordinates[middle] < value - EPSILON) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,205 @@
+package com.jja.ld34.ai;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Drives every AI agent from the game loop in one pass, instead of one Scheduler task per agent. Each
+ * {@link #update(float)} ticks every agent's think timer (a loop over a plain float array), then lets agents whose
+ * timer ran out think, up to a budget of decisions per step. The scan picks up where the last one stopped, so when
+ * more agents are due than the budget allows, the ones left over are served first next step (round-robin) and a burst
+ * of due agents (e.g. a wave that spawned together) is spread over several steps instead of landing on one. Agents
+ * added outside the budget (e.g. turrets, whose volleys keep a fixed cadence) think whenever they're due, ahead of the
+ * rest, and don't use up any of it.
+ *
+ * Thinking is split in two. The due agents all decide first, through a {@link DecisionExecutor} that may spread them
+ * over threads; deciding only reads state frozen for the step (the transform store, flow fields) and only writes the
+ * agent's own intent. Then every agent acts on its intent, one after the other on the game thread and in batch order,
+ * which is the only time Box2D is touched. So the outcome never depends on the executor, and runs stay deterministic.
+ */
+public class AgentManager {
+
+    public interface Agent {
+        // picks the next move and keeps it as an intent; may run on a worker thread, alongside other agents deciding
+        void decide();
+
+        // carries the intent out (impulses, spawning bullets); always on the game thread
+        void act();
+    }
+
+    public static final int DEFAULT_DECISIONS_PER_STEP = 32;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // agents, as parallel arrays; times in s
+    private static Agent[] agents = new Agent[INITIAL_CAPACITY];
+    private static float[] timers = new float[INITIAL_CAPACITY];   // until the agent is due, <= 0 once it is
+    private static float[] intervals = new float[INITIAL_CAPACITY];
+    private static boolean[] budgeted = new boolean[INITIAL_CAPACITY];  // false for agents that think whenever they're due
+    private static int agentCount = 0;
+    private static final ObjectIntMap<Agent> indices = new ObjectIntMap<Agent>();
+    private static Agent[] batch = new Agent[INITIAL_CAPACITY];     // the agents thinking this update
+
+    private static DecisionExecutor executor = new SerialDecisionExecutor();
+
+    private static int decisionsPerStep = DEFAULT_DECISIONS_PER_STEP;
+    private static int cursor = 0;
+
+    private static int lastDecisionCount = 0;
+    private static int lastDeferredCount = 0;
+
+    // has the agent think after delay seconds, then every interval seconds; re-adding an agent reschedules it
+    public static void add(Agent agent, float delay, float interval) {
+        add(agent, delay, interval, true);
+    }
+
+    // like add(agent, delay, interval), but an agent outside the budget is never held back by it
+    public static void add(Agent agent, float delay, float interval, boolean withinBudget) {
+        int index = indices.get(agent, -1);
+        if (index == -1) {
+            if (agentCount == agents.length) {
+                grow();
+            }
+            index = agentCount++;
+            agents[index] = agent;
+            indices.put(agent, index);
+        }
+        timers[index] = Math.max(0, delay);
+        intervals[index] = Math.max(0, interval);
+        budgeted[index] = withinBudget;
+    }
+
+    // not from inside decide() or act(); removing an agent that isn't there does nothing
+    public static void remove(Agent agent) {
+        int index = indices.remove(agent, -1);
+        if (index == -1) {
+            return;
+        }
+
+        // swap the last agent into the hole
+        int last = --agentCount;
+        if (index != last) {
+            agents[index] = agents[last];
+            timers[index] = timers[last];
+            intervals[index] = intervals[last];
+            budgeted[index] = budgeted[last];
+            indices.put(agents[index], index);
+        }
+        agents[last] = null;
+        if (cursor > agentCount) {
+            cursor = 0;
+        }
+    }
+
+    public static boolean contains(Agent agent) {
+        return indices.containsKey(agent);
+    }
+
+    // call once per step, outside of World.step
+    public static void update(float delta) {
+        // agents outside the budget go first, in index order
+        int decisions = 0;
+        int dueCount = 0;
+        for (int i = 0; i < agentCount; i++) {
+            timers[i] -= delta;
+            if (timers[i] <= 0) {
+                if (budgeted[i]) {
+                    dueCount++;
+                } else {
+                    reschedule(i);
+                    batch[decisions++] = agents[i];
+                }
+            }
+        }
+
+        int budgetedDecisions = 0;
+        for (int visited = 0; visited < agentCount && budgetedDecisions < decisionsPerStep; visited++) {
+            if (cursor >= agentCount) {
+                cursor = 0;
+            }
+            int index = cursor++;
+            if (budgeted[index] && timers[index] <= 0) {
+                reschedule(index);
+                batch[decisions++] = agents[index];
+                budgetedDecisions++;
+            }
+        }
+
+        executor.decideAll(batch, decisions);
+        for (int i = 0; i < decisions; i++) {
+            batch[i].act();
+            batch[i] = null;
+        }
+
+        lastDecisionCount = decisions;
+        lastDeferredCount = dueCount - budgetedDecisions;
+    }
+
+    // drops every agent, e.g. when the world they live in goes away
+    public static void clear() {
+        for (int i = 0; i < agentCount; i++) {
+            agents[i] = null;
+        }
+        agentCount = 0;
+        indices.clear();
+        cursor = 0;
+        lastDecisionCount = lastDeferredCount = 0;
+    }
+
+    // how the decide stage runs; serial unless a platform that has threads swaps in its own
+    public static void setExecutor(DecisionExecutor newExecutor) {
+        executor = newExecutor;
+    }
+
+    public static DecisionExecutor getExecutor() {
+        return executor;
+    }
+
+    // the most agents within the budget allowed to think per update
+    public static void setDecisionsPerStep(int decisions) {
+        decisionsPerStep = Math.max(1, decisions);
+    }
+
+    public static int getDecisionsPerStep() {
+        return decisionsPerStep;
+    }
+
+    public static int getAgentCount() {
+        return agentCount;
+    }
+
+    // agents that thought in the last update
+    public static int getLastDecisionCount() {
+        return lastDecisionCount;
+    }
+
+    // agents that were due in the last update but held back by the budget
+    public static int getLastDeferredCount() {
+        return lastDeferredCount;
+    }
+
+    private static void reschedule(int index) {
+        // keeps its cadence if it's less than an interval late; one held back longer skips the thinks it missed
+        // instead of making up for them with a burst, and is due again one interval from now
+        timers[index] += intervals[index];
+        if (timers[index] <= 0) {
+            timers[index] = intervals[index];
+        }
+    }
+
+    private static void grow() {
+        int capacity = agents.length * 2;
+        Agent[] grownAgents = new Agent[capacity];
+        float[] grownTimers = new float[capacity];
+        float[] grownIntervals = new float[capacity];
+        boolean[] grownBudgeted = new boolean[capacity];
+        System.arraycopy(agents, 0, grownAgents, 0, agentCount);
+        System.arraycopy(timers, 0, grownTimers, 0, agentCount);
+        System.arraycopy(intervals, 0, grownIntervals, 0, agentCount);
+        System.arraycopy(budgeted, 0, grownBudgeted, 0, agentCount);
+        agents = grownAgents;
+        timers = grownTimers;
+        intervals = grownIntervals;
+        budgeted = grownBudgeted;
+        batch = new Agent[capacity];
+    }
+}
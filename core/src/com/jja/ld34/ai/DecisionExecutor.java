@@ -0,0 +1,11 @@
+package com.jja.ld34.ai;
+
+/**
+ * Runs the decide stage of AgentManager's agents. Implementations may split the batch over threads however they like:
+ * AgentManager only acts on the decisions, in batch order, once decideAll has returned.
+ */
+public interface DecisionExecutor {
+
+    // calls decide() on agents[0] to agents[count - 1], returning once all of them have
+    void decideAll(AgentManager.Agent[] agents, int count);
+}
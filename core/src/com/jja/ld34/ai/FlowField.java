@@ -0,0 +1,260 @@
+package com.jja.ld34.ai;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.levels.LevelData;
+
+/**
+ * Which way to go from every tile of a level to reach one target tile, for any number of agents at once. Walls are
+ * rasterized once from the level's wall loops; {@link #setTarget(float, float)} then runs a breadth-first search out
+ * from the target (a Dijkstra distance map, with every step costing the same), but only when the target has moved
+ * to another tile. Agents read their tile's direction in O(1), so the cost doesn't grow with the number of agents.
+ *
+ * Moves are the four axis directions, the same ones clones and the player move in. A target in a blocked tile (e.g.
+ * a player brushing a wall) is searched from the nearest open tile instead, and an agent in a blocked tile is pointed
+ * out of it towards the nearest open tile the search reached.
+ */
+public class FlowField {
+
+    public static final int NONE = -1;  // unreachable, or already there
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    private static final int[] STEP_X = {0, 0, -1, 1};
+    private static final int[] STEP_Y = {1, -1, 0, 0};
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final int width;
+    private final int height;
+    private final float tileWidth;  // in px
+    private final float tileHeight;
+
+    private final boolean[] blocked;
+    private final int[] distances;
+    private final byte[] directions;
+    private final int[] queue;
+
+    private int targetTile = -1;
+    private int rebuildCount = 0;
+
+    public FlowField(int width, int height, float tileWidth, float tileHeight) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+
+        int tileCount = width * height;
+        this.blocked = new boolean[tileCount];
+        this.distances = new int[tileCount];
+        this.directions = new byte[tileCount];
+        this.queue = new int[tileCount];
+        clearDirections();
+    }
+
+    // sized from the level's map, with its walls already rasterized
+    public static FlowField fromLevel(LevelData level) {
+        MapProperties properties = level.getMap().getProperties();
+        FlowField field = new FlowField(properties.get("width", Integer.class), properties.get("height", Integer.class),
+                properties.get("tilewidth", Integer.class), properties.get("tileheight", Integer.class));
+        field.setWalls(level.getWallLoops());
+        return field;
+    }
+
+    /**
+     * Marks every tile whose center is inside a wall as blocked. Walls don't have to line up with tiles, so a tile a
+     * wall only clips stays open. The loops are the axis-aligned outlines made by WallCompiler, in px: along the line
+     * through each tile row's centers, the walls are the spans between alternate vertical edges crossing it (even-odd).
+     */
+    public void setWalls(Array<float[]> loops) {
+        for (int i = 0; i < this.blocked.length; i++) {
+            this.blocked[i] = false;
+        }
+
+        FloatArray crossings = new FloatArray();
+        for (int row = 0; row < this.height; row++) {
+            float y = (row + 0.5f) * this.tileHeight;
+            crossings.clear();
+            for (int i = 0; i < loops.size; i++) {
+                float[] loop = loops.get(i);
+                for (int v = 0; v < loop.length; v += 2) {
+                    float x0 = loop[v], y0 = loop[v + 1];
+                    float x1 = loop[(v + 2) % loop.length], y1 = loop[(v + 3) % loop.length];
+                    if (x0 == x1 && (y >= Math.min(y0, y1)) && (y < Math.max(y0, y1))) {
+                        crossings.add(x0);
+                    }
+                }
+            }
+            crossings.sort();
+
+            // the columns whose center lies in [start, end)
+            for (int i = 0; i + 1 < crossings.size; i += 2) {
+                int firstColumn = Math.max(0, (int) Math.ceil(crossings.get(i) / this.tileWidth - 0.5f));
+                int lastColumn = Math.min(this.width - 1, (int) Math.ceil(crossings.get(i + 1) / this.tileWidth - 0.5f) - 1);
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    this.blocked[row * this.width + column] = true;
+                }
+            }
+        }
+
+        // walls changed, so whatever was searched before is stale
+        int target = this.targetTile;
+        this.targetTile = -1;
+        if (target != -1) {
+            search(target);
+        }
+    }
+
+    /**
+     * Points the field at the given position (in m), searching again only if that's a different tile than last
+     * time. Returns whether it searched.
+     */
+    public boolean setTarget(float x, float y) {
+        int tile = tileAt(x, y);
+        if (tile == this.targetTile) {
+            return false;
+        }
+        search(tile);
+        return true;
+    }
+
+    // the way to go (UP, DOWN, LEFT, RIGHT or NONE) from the given position, in m
+    public int getDirection(float x, float y) {
+        int tile = tileAt(x, y);
+        return (tile == -1) ? NONE : this.directions[tile];
+    }
+
+    // steps from the given position (in m) to the target, or -1 if it can't get there
+    public int getDistance(float x, float y) {
+        int tile = tileAt(x, y);
+        return (tile == -1 || this.distances[tile] == UNREACHED) ? -1 : this.distances[tile];
+    }
+
+    public boolean isBlocked(int column, int row) {
+        return this.blocked[row * this.width + column];
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    // how many times the field has been searched, e.g. to check it isn't rebuilt every step
+    public int getRebuildCount() {
+        return this.rebuildCount;
+    }
+
+    // the tile index at a position in m, or -1 off the map
+    private int tileAt(float x, float y) {
+        int column = (int) Math.floor(x * Ld34Game.PIXELS_PER_METER / this.tileWidth);
+        int row = (int) Math.floor(y * Ld34Game.PIXELS_PER_METER / this.tileHeight);
+        if (column < 0 || column >= this.width || row < 0 || row >= this.height) {
+            return -1;
+        }
+        return row * this.width + column;
+    }
+
+    private void search(int target) {
+        this.targetTile = target;
+        this.rebuildCount++;
+        for (int i = 0; i < this.distances.length; i++) {
+            this.distances[i] = UNREACHED;
+        }
+        clearDirections();
+        int start = (target == -1) ? -1 : nearestOpenTile(target);
+        if (start == -1) {
+            return;
+        }
+
+        // breadth-first from the target; each tile reached points back the way the search came. Open tiles only lead
+        // on to open tiles, so no path runs through a wall, but any tile may lead into a blocked one and blocked tiles
+        // on to blocked ones: an agent inside a wall gets pointed out of it, never the other way round
+        int head = 0, tail = 0;
+        this.distances[start] = 0;
+        this.queue[tail++] = start;
+        while (head < tail) {
+            int tile = this.queue[head++];
+            int column = tile % this.width;
+            int row = tile / this.width;
+            for (int direction = 0; direction < STEP_X.length; direction++) {
+                int nextColumn = column + STEP_X[direction];
+                int nextRow = row + STEP_Y[direction];
+                if (nextColumn < 0 || nextColumn >= this.width || nextRow < 0 || nextRow >= this.height) {
+                    continue;
+                }
+                int next = nextRow * this.width + nextColumn;
+                if (this.distances[next] != UNREACHED || (this.blocked[tile] && !this.blocked[next])) {
+                    continue;
+                }
+                this.distances[next] = this.distances[tile] + 1;
+                this.directions[next] = (byte) opposite(direction);
+                this.queue[tail++] = next;
+            }
+        }
+    }
+
+    // the tile itself if it's open, else the closest open tile by steps through anything, or -1 if every tile is blocked
+    private int nearestOpenTile(int tile) {
+        if (!this.blocked[tile]) {
+            return tile;
+        }
+
+        // distances are UNREACHED on the way in; the ones this marks are put back before returning
+        int head = 0, tail = 0;
+        int found = -1;
+        this.distances[tile] = 0;
+        this.queue[tail++] = tile;
+        while (head < tail && found == -1) {
+            int current = this.queue[head++];
+            int column = current % this.width;
+            int row = current / this.width;
+            for (int direction = 0; direction < STEP_X.length; direction++) {
+                int nextColumn = column + STEP_X[direction];
+                int nextRow = row + STEP_Y[direction];
+                if (nextColumn < 0 || nextColumn >= this.width || nextRow < 0 || nextRow >= this.height) {
+                    continue;
+                }
+                int next = nextRow * this.width + nextColumn;
+                if (this.distances[next] != UNREACHED) {
+                    continue;
+                }
+                if (!this.blocked[next]) {
+                    found = next;
+                    break;
+                }
+                this.distances[next] = 0;
+                this.queue[tail++] = next;
+            }
+        }
+
+        for (int i = 0; i < tail; i++) {
+            this.distances[this.queue[i]] = UNREACHED;
+        }
+        return found;
+    }
+
+    private void clearDirections() {
+        for (int i = 0; i < this.directions.length; i++) {
+            this.directions[i] = NONE;
+        }
+    }
+
+    private static int opposite(int direction) {
+        switch (direction) {
+            case UP:
+                return DOWN;
+            case DOWN:
+                return UP;
+            case LEFT:
+                return RIGHT;
+            default:
+                return LEFT;
+        }
+    }
+}
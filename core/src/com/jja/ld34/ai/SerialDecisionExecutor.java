@@ -0,0 +1,12 @@
+package com.jja.ld34.ai;
+
+// every agent decides on the calling thread, in batch order; the only choice on GWT, and the reference for the others
+public class SerialDecisionExecutor implements DecisionExecutor {
+
+    @Override
+    public void decideAll(AgentManager.Agent[] agents, int count) {
+        for (int i = 0; i < count; i++) {
+            agents[i].decide();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.jja.ld34.graphics;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Shared, reference-counted cache of every entity sprite sheet, packed into a single atlas (see core/sprites and the
+ * packTextures task). All regions and animations handed out here share one texture, so entities can be spawned
+ * without touching the GPU and drawn without texture switches.
+ *
+ * Whoever owns the entities (e.g. PlayScreen) acquires the atlas for as long as they live and releases it afterwards;
+ * the atlas is loaded on the first acquire and disposed on the last release.
+ */
+public class SpriteSheets {
+
+    public static final String ATLAS_FILE = "sprites.atlas";
+
+    public static final String BATTERY = "battery/battery";
+    public static final String BERNIE = "bernie/bernie";
+    public static final String BERNIE_COLONEL = "bernie/bernie_colonel";
+    public static final String BERNIE_NAKED = "bernie/bernie_naked";
+    public static final String BERNIE_REDTIE = "bernie/bernie_redtie";
+    public static final String TRUMP = "trump/trump";
+    public static final String TURRET = "turret/turret";
+    public static final String ENERGY_BALL = "turret_bullet/energy_ball";
+
+    private static TextureAtlas atlas;
+    private static int referenceCount = 0;
+
+    private static ObjectMap<String, TextureRegion> regions = new ObjectMap<String, TextureRegion>();
+    private static ObjectMap<String, TextureRegion[]> frames = new ObjectMap<String, TextureRegion[]>();
+    private static ObjectMap<String, Animation> animations = new ObjectMap<String, Animation>();
+
+    public static void acquire() {
+        if (referenceCount++ == 0) {
+            atlas = new TextureAtlas(ATLAS_FILE);
+        }
+    }
+
+    // acquires with an atlas built by the caller, e.g. one backed by placeholder textures for headless runs;
+    // if an atlas is already loaded that one is kept and the given one is left to the caller
+    public static void acquire(TextureAtlas providedAtlas) {
+        if (referenceCount++ == 0) {
+            atlas = providedAtlas;
+        }
+    }
+
+    public static void release() {
+        if (referenceCount == 0) {
+            return;
+        }
+
+        if (--referenceCount == 0) {
+            regions.clear();
+            frames.clear();
+            animations.clear();
+            atlas.dispose();
+            atlas = null;
+        }
+    }
+
+    public static int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public static TextureRegion getRegion(String sheet) {
+        TextureRegion region = regions.get(sheet);
+        if (region == null) {
+            region = atlas.findRegion(sheet);
+            if (region == null) {
+                throw new IllegalArgumentException("No sprite sheet named '" + sheet + "' in " + ATLAS_FILE);
+            }
+            regions.put(sheet, region);
+        }
+        return region;
+    }
+
+    // a sheet is a single row of square frames, left to right
+    public static TextureRegion getFrame(String sheet, int frameSize, int frame) {
+        return getFrames(sheet, frameSize)[frame];
+    }
+
+    public static Animation getAnimation(String sheet, int frameSize, int firstFrame, int lastFrame, float frameDuration) {
+        String key = sheet + ':' + frameSize + ':' + firstFrame + '-' + lastFrame + '@' + frameDuration;
+        Animation animation = animations.get(key);
+        if (animation == null) {
+            TextureRegion[] sheetFrames = getFrames(sheet, frameSize);
+            Array<TextureRegion> animationFrames = new Array<TextureRegion>(lastFrame - firstFrame + 1);
+            for (int i = firstFrame; i <= lastFrame; i++) {
+                animationFrames.add(sheetFrames[i]);
+            }
+            animation = new Animation(frameDuration, animationFrames);
+            animations.put(key, animation);
+        }
+        return animation;
+    }
+
+    private static TextureRegion[] getFrames(String sheet, int frameSize) {
+        String key = sheet + ':' + frameSize;
+        TextureRegion[] sheetFrames = frames.get(key);
+        if (sheetFrames == null) {
+            sheetFrames = getRegion(sheet).split(frameSize, frameSize)[0];
+            frames.put(key, sheetFrames);
+        }
+        return sheetFrames;
+    }
+}
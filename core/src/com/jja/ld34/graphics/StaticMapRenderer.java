@@ -0,0 +1,246 @@
+package com.jja.ld34.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws a map's tile layers from a SpriteCache that's filled once, when the renderer is made, instead of re-batching
+ * every visible tile each frame like OrthogonalTiledMapRenderer. The map is cut into square chunks of CHUNK_SIZE
+ * tiles, each holding all of its layers in map order, and a frame only draws the chunks that overlap the camera, so
+ * the per-frame cost is a draw call per visible chunk and no vertex building at all.
+ *
+ * Nothing about the tiles may change after that (animated tiles are drawn on their first frame), which holds for
+ * every level since they come from .lvl files. Make a new renderer for a new map.
+ */
+public class StaticMapRenderer implements Disposable {
+
+    public static final int CHUNK_SIZE = 16;  // in tiles; a chunk is 5.12 m across, so a game-sized view overlaps 2x2 to 3x3
+    public static final int MAX_INDEXED_QUADS = 8191;  // SpriteCache can't use (short) indices past this
+
+    private static final int VERTEX_SIZE = 5;  // x, y, color, u, v
+    private static final int QUAD_SIZE = 4 * VERTEX_SIZE;
+    private static final int TRIANGLES_SIZE = 6 * VERTEX_SIZE;
+
+    private SpriteCache cache;
+    private boolean indexed;    // false for maps too big for indices: each tile is then added as two triangles
+    private int columns;
+    private int rows;
+    private int[] cacheIds;     // per chunk, -1 for one without tiles
+    private float[] bounds;     // per chunk: min x, min y, max x, max y of its quads, in world units
+
+    private final float[] vertices = new float[QUAD_SIZE];
+    private final float[] triangles = new float[TRIANGLES_SIZE];
+    private int lastDrawnChunkCount = 0;
+
+    public StaticMapRenderer(TiledMap map, float unitScale) {
+        int mapColumns = 0;
+        int mapRows = 0;
+        int quadCount = 0;
+        for (MapLayer layer : map.getLayers()) {
+            if (layer.isVisible() && layer instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                mapColumns = Math.max(mapColumns, tileLayer.getWidth());
+                mapRows = Math.max(mapRows, tileLayer.getHeight());
+                quadCount += countTiles(tileLayer);
+            }
+        }
+
+        this.columns = (mapColumns + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.rows = (mapRows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.cacheIds = new int[this.columns * this.rows];
+        this.bounds = new float[this.cacheIds.length * 4];
+        this.indexed = quadCount <= MAX_INDEXED_QUADS;
+        this.cache = new SpriteCache(Math.max(quadCount, 1), this.indexed);
+
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                int chunk = row * this.columns + column;
+                this.bounds[chunk * 4] = this.bounds[chunk * 4 + 1] = Float.MAX_VALUE;
+                this.bounds[chunk * 4 + 2] = this.bounds[chunk * 4 + 3] = -Float.MAX_VALUE;
+
+                this.cache.beginCache();
+                int added = 0;
+                for (MapLayer layer : map.getLayers()) {
+                    if (layer.isVisible() && layer instanceof TiledMapTileLayer) {
+                        added += addChunk((TiledMapTileLayer) layer, chunk, column * CHUNK_SIZE, row * CHUNK_SIZE, unitScale);
+                    }
+                }
+                int id = this.cache.endCache();
+                this.cacheIds[chunk] = (added > 0) ? id : -1;
+            }
+        }
+
+        Gdx.app.log("StaticMapRenderer", "Cached " + quadCount + " tiles in " + this.cacheIds.length + " chunks");
+    }
+
+    public void render(OrthographicCamera camera) {
+        float width = camera.viewportWidth * camera.zoom;
+        float height = camera.viewportHeight * camera.zoom;
+        render(camera, camera.position.x - width / 2, camera.position.y - height / 2, width, height);
+    }
+
+    // draws the chunks overlapping the given rectangle, in world units
+    public void render(OrthographicCamera camera, float x, float y, float width, float height) {
+        float right = x + width;
+        float top = y + height;
+
+        this.lastDrawnChunkCount = 0;
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        this.cache.setProjectionMatrix(camera.combined);
+        this.cache.begin();
+        for (int chunk = 0; chunk < this.cacheIds.length; chunk++) {
+            int id = this.cacheIds[chunk];
+            if (id != -1 && this.bounds[chunk * 4] < right && this.bounds[chunk * 4 + 2] > x
+                    && this.bounds[chunk * 4 + 1] < top && this.bounds[chunk * 4 + 3] > y) {
+                this.cache.draw(id);
+                this.lastDrawnChunkCount++;
+            }
+        }
+        this.cache.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    public int getChunkCount() {
+        return this.cacheIds.length;
+    }
+
+    public int getLastDrawnChunkCount() {
+        return this.lastDrawnChunkCount;
+    }
+
+    public int getRenderCalls() {
+        return this.cache.renderCalls;
+    }
+
+    private int addChunk(TiledMapTileLayer layer, int chunk, int firstColumn, int firstRow, float unitScale) {
+        float tileWidth = layer.getTileWidth() * unitScale;
+        float tileHeight = layer.getTileHeight() * unitScale;
+        float color = Color.toFloatBits(1, 1, 1, layer.getOpacity());
+        int lastColumn = Math.min(firstColumn + CHUNK_SIZE, layer.getWidth());
+        int lastRow = Math.min(firstRow + CHUNK_SIZE, layer.getHeight());
+
+        int added = 0;
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int column = firstColumn; column < lastColumn; column++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(column, row);
+                if (cell == null || cell.getTile() == null) {
+                    continue;
+                }
+
+                TiledMapTile tile = cell.getTile();
+                TextureRegion region = tile.getTextureRegion();
+                float x1 = column * tileWidth + tile.getOffsetX() * unitScale;
+                float y1 = row * tileHeight + tile.getOffsetY() * unitScale;
+                float x2 = x1 + region.getRegionWidth() * unitScale;
+                float y2 = y1 + region.getRegionHeight() * unitScale;
+                setQuad(region, x1, y1, x2, y2, color, cell.getFlipHorizontally(), cell.getFlipVertically(), cell.getRotation());
+                if (this.indexed) {
+                    this.cache.add(region.getTexture(), this.vertices, 0, QUAD_SIZE);
+                } else {
+                    setTriangles();
+                    this.cache.add(region.getTexture(), this.triangles, 0, TRIANGLES_SIZE);
+                }
+                added++;
+
+                this.bounds[chunk * 4] = Math.min(this.bounds[chunk * 4], x1);
+                this.bounds[chunk * 4 + 1] = Math.min(this.bounds[chunk * 4 + 1], y1);
+                this.bounds[chunk * 4 + 2] = Math.max(this.bounds[chunk * 4 + 2], x2);
+                this.bounds[chunk * 4 + 3] = Math.max(this.bounds[chunk * 4 + 3], y2);
+            }
+        }
+        return added;
+    }
+
+    // same corner order and uv shuffling as OrthogonalTiledMapRenderer, so cached tiles look exactly like batched ones
+    private void setQuad(TextureRegion region, float x1, float y1, float x2, float y2, float color, boolean flipX, boolean flipY, int rotation) {
+        float[] v = this.vertices;
+        float u1 = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+
+        v[0] = x1;  v[1] = y1;  v[2] = color;  v[3] = u1;  v[4] = v1;
+        v[5] = x1;  v[6] = y2;  v[7] = color;  v[8] = u1;  v[9] = v2;
+        v[10] = x2; v[11] = y2; v[12] = color; v[13] = u2; v[14] = v2;
+        v[15] = x2; v[16] = y1; v[17] = color; v[18] = u2; v[19] = v1;
+
+        if (flipX) {
+            swap(v, 3, 13);
+            swap(v, 8, 18);
+        }
+        if (flipY) {
+            swap(v, 4, 14);
+            swap(v, 9, 19);
+        }
+        if (rotation == TiledMapTileLayer.Cell.ROTATE_90) {
+            rotateLeft(v, 4);
+            rotateLeft(v, 3);
+        } else if (rotation == TiledMapTileLayer.Cell.ROTATE_180) {
+            swap(v, 3, 13);
+            swap(v, 8, 18);
+            swap(v, 4, 14);
+            swap(v, 9, 19);
+        } else if (rotation == TiledMapTileLayer.Cell.ROTATE_270) {
+            rotateRight(v, 4);
+            rotateRight(v, 3);
+        }
+    }
+
+    // the quad's corners as the two triangles SpriteCache draws without indices: 1, 2, 3 and 3, 4, 1
+    private void setTriangles() {
+        System.arraycopy(this.vertices, 0, this.triangles, 0, 3 * VERTEX_SIZE);
+        System.arraycopy(this.vertices, 2 * VERTEX_SIZE, this.triangles, 3 * VERTEX_SIZE, 2 * VERTEX_SIZE);
+        System.arraycopy(this.vertices, 0, this.triangles, 5 * VERTEX_SIZE, VERTEX_SIZE);
+    }
+
+    private static void swap(float[] v, int a, int b) {
+        float temp = v[a];
+        v[a] = v[b];
+        v[b] = temp;
+    }
+
+    // moves the attribute at the given offset one corner back: corner 1 takes corner 2's, ..., corner 4 takes corner 1's
+    private static void rotateLeft(float[] v, int offset) {
+        float temp = v[offset];
+        v[offset] = v[offset + VERTEX_SIZE];
+        v[offset + VERTEX_SIZE] = v[offset + 2 * VERTEX_SIZE];
+        v[offset + 2 * VERTEX_SIZE] = v[offset + 3 * VERTEX_SIZE];
+        v[offset + 3 * VERTEX_SIZE] = temp;
+    }
+
+    private static void rotateRight(float[] v, int offset) {
+        float temp = v[offset + 3 * VERTEX_SIZE];
+        v[offset + 3 * VERTEX_SIZE] = v[offset + 2 * VERTEX_SIZE];
+        v[offset + 2 * VERTEX_SIZE] = v[offset + VERTEX_SIZE];
+        v[offset + VERTEX_SIZE] = v[offset];
+        v[offset] = temp;
+    }
+
+    private static int countTiles(TiledMapTileLayer layer) {
+        int count = 0;
+        for (int row = 0; row < layer.getHeight(); row++) {
+            for (int column = 0; column < layer.getWidth(); column++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(column, row);
+                if (cell != null && cell.getTile() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void dispose() {
+        this.cache.dispose();
+    }
+}
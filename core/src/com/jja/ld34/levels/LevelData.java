@@ -0,0 +1,73 @@
+package com.jja.ld34.levels;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.jja.ld34.objects.Archetype;
+
+// everything a level needs at runtime: its tile layers for rendering, the merged walls, and where things spawn
+public class LevelData implements Disposable {
+
+    public enum SpawnTable {
+        BERNIE("berniespawn"),
+        TRUMP("trumpspawn"),
+        TURRET("turretspawn"),
+        EXIT_PART("exitparts"),
+        EXIT("exit");
+
+        public final String layerName;  // the TMX object layer it's compiled from
+
+        SpawnTable(String layerName) {
+            this.layerName = layerName;
+        }
+    }
+
+    private final TiledMap map;
+    private final Array<float[]> wallLoops;
+    private final Array<Rectangle>[] spawnTables;
+    private final Array<Archetype>[] archetypes;
+    private final IntArray[] spawnArchetypes;
+
+    public LevelData(TiledMap map, Array<float[]> wallLoops, Array<Rectangle>[] spawnTables, Array<Archetype>[] archetypes, IntArray[] spawnArchetypes) {
+        this.map = map;
+        this.wallLoops = wallLoops;
+        this.spawnTables = spawnTables;
+        this.archetypes = archetypes;
+        this.spawnArchetypes = spawnArchetypes;
+    }
+
+    public TiledMap getMap() {
+        return this.map;
+    }
+
+    // see WallCompiler.compileLoops()
+    public Array<float[]> getWallLoops() {
+        return this.wallLoops;
+    }
+
+    // spawn rectangles in px, in map order; empty if the map had none
+    public Array<Rectangle> getSpawns(SpawnTable table) {
+        return this.spawnTables[table.ordinal()];
+    }
+
+    // the distinct archetypes of a table's spawns
+    public Array<Archetype> getArchetypes(SpawnTable table) {
+        return this.archetypes[table.ordinal()];
+    }
+
+    // index into getArchetypes(table) of the given spawn
+    public int getArchetypeIndex(SpawnTable table, int spawn) {
+        return this.spawnArchetypes[table.ordinal()].get(spawn);
+    }
+
+    public Archetype getArchetype(SpawnTable table, int spawn) {
+        return getArchetypes(table).get(getArchetypeIndex(table, spawn));
+    }
+
+    @Override
+    public void dispose() {
+        this.map.dispose();
+    }
+}
@@ -0,0 +1,77 @@
+package com.jja.ld34.levels;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * AssetManager loader for .lvl files. The tileset images are declared as Texture dependencies, so levels sharing a
+ * tileset share (and reference count) one texture, and the level itself is decoded on the loader thread; nothing is
+ * left for the GL thread but handing it over.
+ */
+public class LevelDataLoader extends AsynchronousAssetLoader<LevelData, LevelDataLoader.LevelDataParameter> {
+
+    public static class LevelDataParameter extends AssetLoaderParameters<LevelData> {
+    }
+
+    // decodes with the tileset textures the AssetManager already loaded as dependencies
+    private static class ManagedTextureLevelLoader extends LevelLoader {
+
+        private AssetManager assetManager;
+
+        @Override
+        protected Texture loadTexture(FileHandle file, int width, int height) {
+            return this.assetManager.get(assetName(file), Texture.class);
+        }
+
+        @Override
+        protected boolean ownsTextures() {
+            return false;
+        }
+    }
+
+    private final ManagedTextureLevelLoader levelLoader = new ManagedTextureLevelLoader();
+
+    // AssetManager loads one asset at a time per loader, so these only ever belong to the level in flight
+    private byte[] bytes;
+    private LevelData level;
+
+    public LevelDataLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, LevelDataParameter parameter) {
+        this.bytes = file.readBytes();
+        Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+        for (FileHandle image : this.levelLoader.readTilesetImages(file, this.bytes)) {
+            dependencies.add(new AssetDescriptor<Texture>(assetName(image), Texture.class));
+        }
+        return dependencies;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, LevelDataParameter parameter) {
+        this.levelLoader.assetManager = manager;
+        this.level = this.levelLoader.read(file, this.bytes);
+        this.levelLoader.assetManager = null;
+        this.bytes = null;
+    }
+
+    @Override
+    public LevelData loadSync(AssetManager manager, String fileName, FileHandle file, LevelDataParameter parameter) {
+        LevelData level = this.level;
+        this.level = null;
+        return level;
+    }
+
+    // the same normalized path AssetDescriptor uses
+    private static String assetName(FileHandle file) {
+        return file.path().replaceAll("\\\\", "/");
+    }
+}
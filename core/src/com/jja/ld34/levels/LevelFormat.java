@@ -0,0 +1,41 @@
+package com.jja.ld34.levels;
+
+/**
+ * Layout of the binary .lvl files that LevelCompiler bakes from the TMX maps. All values are big-endian; strings are
+ * a 2 byte length followed by that many ASCII bytes.
+ *
+ * <pre>
+ * int magic, int version
+ * int width, int height, int tileWidth, int tileHeight                     (in tiles / px)
+ * int tilesetCount
+ *     string name, string image (relative to the level file), int firstGid,
+ *     int imageWidth, int imageHeight, int tileWidth, int tileHeight, int margin, int spacing
+ * int tileLayerCount
+ *     string name, byte visible, float opacity, int[width * height] cells    (row by row from the bottom)
+ * int wallLoopCount
+ *     int floatCount, float[floatCount] corners                             (x0, y0, x1, y1, ... in px)
+ * int propertyCount                                                        (Archetype.PROPERTIES.length)
+ * for each SpawnTable, in declaration order:
+ *     int archetypeCount, float[archetypeCount * propertyCount] values       (in Archetype.Property order)
+ *     int count, count * (float x, float y, float width, float height,       (in px)
+ *                         int archetype)                                     (index into this table's archetypes)
+ * </pre>
+ */
+public class LevelFormat {
+
+    public static final int MAGIC = 0x4C564C00;  // "LVL\0"
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".lvl";
+
+    // a cell is a tile gid plus TiledMapTileLayer.Cell's flips and rotation; 0 means no tile
+    public static final int FLIP_HORIZONTALLY = 0x80000000;
+    public static final int FLIP_VERTICALLY = 0x40000000;
+    public static final int ROTATION_SHIFT = 28;
+    public static final int ROTATION_MASK = 0x3 << ROTATION_SHIFT;
+    public static final int GID_MASK = (1 << ROTATION_SHIFT) - 1;
+
+    public static int packCell(int gid, boolean flipHorizontally, boolean flipVertically, int rotation) {
+        return (gid & GID_MASK) | ((rotation << ROTATION_SHIFT) & ROTATION_MASK)
+                | (flipHorizontally ? FLIP_HORIZONTALLY : 0) | (flipVertically ? FLIP_VERTICALLY : 0);
+    }
+}
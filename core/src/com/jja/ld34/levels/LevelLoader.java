@@ -0,0 +1,261 @@
+package com.jja.ld34.levels;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.NumberUtils;
+import com.jja.ld34.objects.Archetype;
+
+/**
+ * Reads the .lvl files described in {@link LevelFormat}. The whole file is read into one byte array and decoded in
+ * place (no streams, XML or reflection, so it also runs on GWT). Only tiles that a layer actually uses get a
+ * TiledMapTile; TmxMapLoader builds one for every tile in the sheet.
+ */
+public class LevelLoader {
+
+    private byte[] bytes;
+    private int position;
+
+    public LevelData load(String fileName) {
+        FileHandle file = Gdx.files.internal(fileName);
+        return read(file, file.readBytes());
+    }
+
+    // decodes a level file's contents, which the caller has already read from file
+    public LevelData read(FileHandle file, byte[] bytes) {
+        this.bytes = bytes;
+        this.position = 0;
+        try {
+            return read(file);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new GdxRuntimeException("Level file '" + file.path() + "' is truncated", e);
+        } finally {
+            this.bytes = null;
+        }
+    }
+
+    // lists the tileset images a level file refers to, without decoding the rest of it
+    public Array<FileHandle> readTilesetImages(FileHandle file, byte[] bytes) {
+        this.bytes = bytes;
+        this.position = 0;
+        try {
+            readHeader(file);
+            readInt();
+            readInt();
+            readInt();
+            readInt();
+            int tilesetCount = readInt();
+            Array<FileHandle> images = new Array<FileHandle>(tilesetCount);
+            for (int i = 0; i < tilesetCount; i++) {
+                readString();
+                images.add(file.parent().child(readString()));
+                this.position += 7 * 4;
+            }
+            return images;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new GdxRuntimeException("Level file '" + file.path() + "' is truncated", e);
+        } finally {
+            this.bytes = null;
+        }
+    }
+
+    // separate so tileset images can come from elsewhere, e.g. an AssetManager or placeholders in the headless build
+    protected Texture loadTexture(FileHandle file, int width, int height) {
+        return new Texture(file);
+    }
+
+    // whether the level's TiledMap disposes the textures from loadTexture() along with itself
+    protected boolean ownsTextures() {
+        return true;
+    }
+
+    private void readHeader(FileHandle file) {
+        if (readInt() != LevelFormat.MAGIC) {
+            throw new GdxRuntimeException("'" + file.path() + "' is not a level file");
+        }
+        int version = readInt();
+        if (version != LevelFormat.VERSION) {
+            throw new GdxRuntimeException("'" + file.path() + "' is level format version " + version + ", expected " + LevelFormat.VERSION + "; recompile the levels");
+        }
+    }
+
+    private LevelData read(FileHandle file) {
+        readHeader(file);
+
+        TiledMap map = new TiledMap();
+        int width = readInt();
+        int height = readInt();
+        int tileWidth = readInt();
+        int tileHeight = readInt();
+        map.getProperties().put("width", width);
+        map.getProperties().put("height", height);
+        map.getProperties().put("tilewidth", tileWidth);
+        map.getProperties().put("tileheight", tileHeight);
+
+        int tilesetCount = readInt();
+        TiledMapTileSet[] tilesets = new TiledMapTileSet[tilesetCount];
+        TextureRegion[] tilesetImages = new TextureRegion[tilesetCount];
+        int[] tilesetLayouts = new int[tilesetCount * 6];   // firstGid, tileWidth, tileHeight, margin, spacing, columns
+        Array<Texture> textures = new Array<Texture>();
+        for (int i = 0; i < tilesetCount; i++) {
+            TiledMapTileSet tileset = new TiledMapTileSet();
+            tileset.setName(readString());
+            String image = readString();
+            int firstGid = readInt();
+            int imageWidth = readInt();
+            int imageHeight = readInt();
+            int setTileWidth = readInt();
+            int setTileHeight = readInt();
+            int margin = readInt();
+            int spacing = readInt();
+
+            Texture texture = loadTexture(file.parent().child(image), imageWidth, imageHeight);
+            textures.add(texture);
+            tilesetImages[i] = new TextureRegion(texture);
+            tileset.getProperties().put("firstgid", firstGid);
+
+            tilesetLayouts[i * 6] = firstGid;
+            tilesetLayouts[i * 6 + 1] = setTileWidth;
+            tilesetLayouts[i * 6 + 2] = setTileHeight;
+            tilesetLayouts[i * 6 + 3] = margin;
+            tilesetLayouts[i * 6 + 4] = spacing;
+            tilesetLayouts[i * 6 + 5] = (texture.getWidth() - setTileWidth - margin) / (setTileWidth + spacing) + 1;
+            tilesets[i] = tileset;
+            map.getTileSets().addTileSet(tileset);
+        }
+        if (ownsTextures()) {
+            map.setOwnedResources(textures);
+        }
+
+        int layerCount = readInt();
+        for (int l = 0; l < layerCount; l++) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+            layer.setName(readString());
+            layer.setVisible(readByte() != 0);
+            layer.setOpacity(readFloat());
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int packed = readInt();
+                    int gid = packed & LevelFormat.GID_MASK;
+                    if (gid == 0) {
+                        continue;
+                    }
+                    TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                    cell.setTile(tile(gid, tilesets, tilesetImages, tilesetLayouts));
+                    cell.setFlipHorizontally((packed & LevelFormat.FLIP_HORIZONTALLY) != 0);
+                    cell.setFlipVertically((packed & LevelFormat.FLIP_VERTICALLY) != 0);
+                    cell.setRotation((packed & LevelFormat.ROTATION_MASK) >>> LevelFormat.ROTATION_SHIFT);
+                    layer.setCell(x, y, cell);
+                }
+            }
+            map.getLayers().add(layer);
+        }
+
+        int loopCount = readInt();
+        Array<float[]> wallLoops = new Array<float[]>(loopCount);
+        for (int i = 0; i < loopCount; i++) {
+            float[] loop = new float[readInt()];
+            for (int j = 0; j < loop.length; j++) {
+                loop[j] = readFloat();
+            }
+            wallLoops.add(loop);
+        }
+
+        int propertyCount = readInt();
+        if (propertyCount != Archetype.PROPERTIES.length) {
+            throw new GdxRuntimeException("'" + file.path() + "' has " + propertyCount + " archetype properties, expected " + Archetype.PROPERTIES.length + "; recompile the levels");
+        }
+
+        LevelData.SpawnTable[] tables = LevelData.SpawnTable.values();
+        @SuppressWarnings("unchecked")
+        Array<Rectangle>[] spawnTables = new Array[tables.length];
+        @SuppressWarnings("unchecked")
+        Array<Archetype>[] archetypes = new Array[tables.length];
+        IntArray[] spawnArchetypes = new IntArray[tables.length];
+        for (int t = 0; t < tables.length; t++) {
+            int archetypeCount = readInt();
+            archetypes[t] = new Array<Archetype>(archetypeCount);
+            for (int i = 0; i < archetypeCount; i++) {
+                float[] values = new float[propertyCount];
+                for (int j = 0; j < propertyCount; j++) {
+                    values[j] = readFloat();
+                }
+                archetypes[t].add(new Archetype(values));
+            }
+
+            int count = readInt();
+            spawnTables[t] = new Array<Rectangle>(count);
+            spawnArchetypes[t] = new IntArray(count);
+            for (int i = 0; i < count; i++) {
+                spawnTables[t].add(new Rectangle(readFloat(), readFloat(), readFloat(), readFloat()));
+                int archetype = readInt();
+                if (archetype < 0 || archetype >= archetypeCount) {
+                    throw new GdxRuntimeException("'" + file.path() + "' has a spawn with archetype " + archetype + " of " + archetypeCount);
+                }
+                spawnArchetypes[t].add(archetype);
+            }
+        }
+
+        return new LevelData(map, wallLoops, spawnTables, archetypes, spawnArchetypes);
+    }
+
+    // finds or lazily creates the tile for a gid, cut from its tileset's image the same way TmxMapLoader does
+    private static TiledMapTile tile(int gid, TiledMapTileSet[] tilesets, TextureRegion[] images, int[] layouts) {
+        int set = tilesets.length - 1;
+        while (set > 0 && layouts[set * 6] > gid) {
+            set--;
+        }
+        TiledMapTileSet tileset = tilesets[set];
+        TiledMapTile tile = tileset.getTile(gid);
+        if (tile == null) {
+            int index = gid - layouts[set * 6];
+            int tileWidth = layouts[set * 6 + 1];
+            int tileHeight = layouts[set * 6 + 2];
+            int margin = layouts[set * 6 + 3];
+            int spacing = layouts[set * 6 + 4];
+            int columns = layouts[set * 6 + 5];
+            int x = margin + (index % columns) * (tileWidth + spacing);
+            int y = margin + (index / columns) * (tileHeight + spacing);
+
+            tile = new StaticTiledMapTile(new TextureRegion(images[set], x, y, tileWidth, tileHeight));
+            tile.setId(gid);
+            tileset.putTile(gid, tile);
+        }
+        return tile;
+    }
+
+    private byte readByte() {
+        return this.bytes[this.position++];
+    }
+
+    private int readInt() {
+        byte[] b = this.bytes;
+        int p = this.position;
+        this.position += 4;
+        return ((b[p] & 0xff) << 24) | ((b[p + 1] & 0xff) << 16) | ((b[p + 2] & 0xff) << 8) | (b[p + 3] & 0xff);
+    }
+
+    private float readFloat() {
+        return NumberUtils.intBitsToFloat(readInt());
+    }
+
+    private String readString() {
+        int length = ((this.bytes[this.position] & 0xff) << 8) | (this.bytes[this.position + 1] & 0xff);
+        this.position += 2;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (this.bytes[this.position++] & 0xff);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,102 @@
+package com.jja.ld34.levels;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Loads levels in manifest order through an AssetManager, so the next level can be prefetched in the background
+ * while the current one is played and the switch-over only has to pick it up. Call {@link #update()} once per
+ * frame/step to keep background loads moving; {@link #acquire(int)} blocks only if a level isn't ready yet.
+ */
+public class LevelStreamer implements Disposable {
+
+    public static final String MANIFEST_FILE = "levels.txt";
+
+    private final AssetManager assetManager;
+    private final Array<String> levels;
+    private final boolean[] requested;
+
+    public LevelStreamer(AssetManager assetManager) {
+        this(assetManager, readManifest(Gdx.files.internal(MANIFEST_FILE)));
+    }
+
+    public LevelStreamer(AssetManager assetManager, Array<String> levels) {
+        this.assetManager = assetManager;
+        this.levels = levels;
+        this.requested = new boolean[levels.size];
+        this.assetManager.setLoader(LevelData.class, new LevelDataLoader(new InternalFileHandleResolver()));
+    }
+
+    // one level file per line, in play order; blank lines and lines starting with # are skipped
+    public static Array<String> readManifest(FileHandle file) {
+        Array<String> levels = new Array<String>();
+        for (String line : file.readString().split("\n")) {
+            line = line.trim();
+            if (line.length() > 0 && !line.startsWith("#")) {
+                levels.add(line);
+            }
+        }
+        if (levels.size == 0) {
+            throw new GdxRuntimeException("Level manifest '" + file.path() + "' lists no levels");
+        }
+        return levels;
+    }
+
+    public int getLevelCount() {
+        return this.levels.size;
+    }
+
+    public String getLevelName(int index) {
+        return this.levels.get(index);
+    }
+
+    // starts loading the level in the background; does nothing if it's out of range or already requested
+    public void prefetch(int index) {
+        if (index < 0 || index >= this.levels.size || this.requested[index]) {
+            return;
+        }
+        this.assetManager.load(this.levels.get(index), LevelData.class);
+        this.requested[index] = true;
+    }
+
+    public boolean isReady(int index) {
+        return this.requested[index] && this.assetManager.isLoaded(this.levels.get(index), LevelData.class);
+    }
+
+    // returns the level, finishing (or starting and finishing) its load first if needed
+    public LevelData acquire(int index) {
+        String name = this.levels.get(index);
+        if (!isReady(index)) {
+            if (!this.requested[index]) {
+                Gdx.app.error("LevelStreamer", "'" + name + "' wasn't prefetched, loading it synchronously");
+            }
+            prefetch(index);
+            this.assetManager.finishLoadingAsset(name);
+        }
+        return this.assetManager.get(name, LevelData.class);
+    }
+
+    // unloads the level; its tileset stays loaded for as long as another loaded level uses it
+    public void release(int index) {
+        if (this.requested[index]) {
+            this.assetManager.unload(this.levels.get(index));
+            this.requested[index] = false;
+        }
+    }
+
+    public void update() {
+        this.assetManager.update();
+    }
+
+    @Override
+    public void dispose() {
+        for (int i = 0; i < this.levels.size; i++) {
+            release(i);
+        }
+    }
+}
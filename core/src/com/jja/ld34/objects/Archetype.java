@@ -0,0 +1,74 @@
+package com.jja.ld34.objects;
+
+/**
+ * Tuning for everything spawned from one kind of spawn object, resolved by LevelCompiler from the TMX properties
+ * (built-in defaults, overridden by the spawn layer's properties, overridden by the object's own). Values live in a
+ * flat array indexed by {@link Property}, so nothing is looked up by name at runtime; spawns with identical values
+ * share one Archetype.
+ */
+public class Archetype {
+
+    public enum Property {
+        COUNT("count", 1),                  // entities per spawn object
+        SPACING("spacing", 32),             // in px, between the entities of one spawn object
+        SPEED("speed", 1),                  // clones: impulse per move
+        THINK_INTERVAL("thinkinterval", 1), // clones: mean time between moves, in s
+        FIRE_PERIOD("fireperiod", 3),       // turrets: time between volleys, in s
+        BULLET_SPEED("bulletspeed", 2),     // turrets
+        BULLET_OFFSET_X("bulletoffsetx", 10),   // turrets: where bullets leave from, in px
+        BULLET_OFFSET_Y("bulletoffsety", 30);
+
+        public final String key;    // the TMX property name
+        public final float defaultValue;
+
+        Property(String key, float defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        public static Property forKey(String key) {
+            for (Property property : PROPERTIES) {
+                if (property.key.equals(key)) {
+                    return property;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final Property[] PROPERTIES = Property.values();
+
+    private final float[] values;
+
+    public Archetype(float[] values) {
+        if (values.length != PROPERTIES.length) {
+            throw new IllegalArgumentException("Expected " + PROPERTIES.length + " archetype values, got " + values.length);
+        }
+        this.values = values;
+    }
+
+    public static float[] defaultValues() {
+        float[] values = new float[PROPERTIES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = PROPERTIES[i].defaultValue;
+        }
+        return values;
+    }
+
+    public float get(Property property) {
+        return this.values[property.ordinal()];
+    }
+
+    public int getInt(Property property) {
+        return (int) this.values[property.ordinal()];
+    }
+
+    public boolean hasValues(float[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (this.values[i] != values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,245 @@
+package com.jja.ld34.objects;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.jja.ld34.ai.FlowField;
+
+import java.util.Random;
+
+/**
+ * Keeps the clones of a level's spawn points alive, up to each point's cap, reusing dead clones (sprite and
+ * deactivated Box2D body included) instead of building new ones. Refills are queued and worked off a few per
+ * {@link #update()}, so a wave of respawns is spread over several steps instead of landing on one.
+ *
+ * Clones made with the TrumpClone constructors directly belong to no spawn point; they are still pooled when they
+ * die, but never respawned or counted.
+ */
+public class ClonePopulation {
+
+    public static final int RESPAWNS_PER_STEP = 4;
+    public static final int POOL_CAPACITY = 256;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static World pooledWorld;
+    private static Random random = new RandomXS128();  // seeds each new clone's own random
+    private static FlowField flowField;     // toward the player; clones wander while there's none
+    private static Array<TrumpClone> freeClones = new Array<TrumpClone>(false, INITIAL_CAPACITY);
+
+    // spawn points, as parallel arrays; positions in px
+    private static float[] pointXs = new float[INITIAL_CAPACITY];
+    private static float[] pointYs = new float[INITIAL_CAPACITY];
+    private static float[] pointSpacings = new float[INITIAL_CAPACITY];
+    private static int[] pointCaps = new int[INITIAL_CAPACITY];
+    private static int[] pointLiveCounts = new int[INITIAL_CAPACITY];
+    private static int[] pointQueuedCounts = new int[INITIAL_CAPACITY];
+    private static TrumpClone.Prototype[] pointPrototypes = new TrumpClone.Prototype[INITIAL_CAPACITY];
+    private static int pointCount = 0;
+
+    // bumped whenever the spawn points are cleared, so clones of an earlier set don't count against the new one
+    private static int generation = 0;
+
+    // ring buffer of spawn points owed a clone, one entry per clone
+    private static int[] respawnQueue = new int[INITIAL_CAPACITY];
+    private static int queueHead = 0;
+    private static int queueSize = 0;
+
+    private static int liveCount = 0;
+    private static int lastRespawnCount = 0;
+
+    private static final Vector2 slotPosition = new Vector2();
+
+    // the world clones are spawned into; anything pooled for another world is dropped
+    public static void setWorld(World world) {
+        if (world != pooledWorld) {
+            // bodies belong to the world that created them
+            freeClones.clear();
+            pooledWorld = world;
+        }
+    }
+
+    // where new clones get their randomness from; seed it for reproducible runs
+    public static void setRandom(Random newRandom) {
+        random = newRandom;
+    }
+
+    // what every clone hunts along; null to let them wander
+    public static void setFlowField(FlowField field) {
+        flowField = field;
+    }
+
+    public static FlowField getFlowField() {
+        return flowField;
+    }
+
+    // adds a spawn point that keeps up to cap clones alive, laid out in a square grid spacing px apart; returns its index
+    public static int addSpawnPoint(float x, float y, int cap, float spacing, TrumpClone.Prototype prototype) {
+        if (pointCount == pointXs.length) {
+            growPoints();
+        }
+        int point = pointCount++;
+        pointXs[point] = x;
+        pointYs[point] = y;
+        pointSpacings[point] = spacing;
+        pointCaps[point] = cap;
+        pointLiveCounts[point] = pointQueuedCounts[point] = 0;
+        pointPrototypes[point] = prototype;
+        return point;
+    }
+
+    // forgets every spawn point and pending respawn, e.g. for a new level; pooled clones are kept for reuse
+    public static void clearSpawnPoints() {
+        for (int i = 0; i < pointCount; i++) {
+            pointPrototypes[i] = null;
+        }
+        pointCount = 0;
+        queueHead = queueSize = 0;
+        liveCount = 0;
+        generation++;
+    }
+
+    // spawns every point up to its cap right away, e.g. when a level starts; returns how many were spawned
+    public static int fillAll() {
+        int spawned = 0;
+        for (int point = 0; point < pointCount; point++) {
+            while (pointLiveCounts[point] + pointQueuedCounts[point] < pointCaps[point]) {
+                spawn(point);
+                spawned++;
+            }
+        }
+        return spawned;
+    }
+
+    // queues every missing clone to be respawned over the next updates
+    public static void queueRefill() {
+        for (int point = 0; point < pointCount; point++) {
+            while (pointLiveCounts[point] + pointQueuedCounts[point] < pointCaps[point]) {
+                enqueue(point);
+            }
+        }
+    }
+
+    // respawns at most RESPAWNS_PER_STEP queued clones; call once per step, outside of World.step
+    public static void update() {
+        lastRespawnCount = 0;
+        while (queueSize > 0 && lastRespawnCount < RESPAWNS_PER_STEP) {
+            int point = respawnQueue[queueHead];
+            queueHead = (queueHead + 1) % respawnQueue.length;
+            queueSize--;
+            pointQueuedCounts[point]--;
+            spawn(point);
+            lastRespawnCount++;
+        }
+    }
+
+    /**
+     * Where the slot-th of count entities goes when they are laid out in a square grid, spacing px apart, starting at
+     * (x, y) in px. Written into out, which is returned. Spawner lays out everything else the same way.
+     */
+    public static Vector2 getSlotPosition(float x, float y, int slot, int count, float spacing, Vector2 out) {
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        return out.set(x + (slot % columns) * spacing, y + (slot / columns) * spacing);
+    }
+
+    /**
+     * Returns a dead clone to the pool, deactivating its body rather than destroying it.
+     * Returns false if the pool is full, in which case the caller should destroy the clone for real.
+     */
+    static boolean free(TrumpClone clone) {
+        if (clone.spawnPoint != -1 && clone.populationGeneration == generation) {
+            pointLiveCounts[clone.spawnPoint]--;
+            liveCount--;
+        }
+        clone.spawnPoint = -1;
+
+        if (clone.world != pooledWorld || freeClones.size >= POOL_CAPACITY) {
+            return false;
+        }
+
+        clone.deactivate();
+        freeClones.add(clone);
+        return true;
+    }
+
+    // drops everything without touching any bodies; call this before disposing the world they live in
+    public static void clear() {
+        clearSpawnPoints();
+        freeClones.clear();
+        pooledWorld = null;
+        flowField = null;
+    }
+
+    public static int getLiveCount() {
+        return liveCount;
+    }
+
+    public static int getQueuedCount() {
+        return queueSize;
+    }
+
+    public static int getFreeCount() {
+        return freeClones.size;
+    }
+
+    public static int getLastRespawnCount() {
+        return lastRespawnCount;
+    }
+
+    private static void spawn(int point) {
+        // fill the point's grid in order; slots can double up once clones have died out of order, which is harmless
+        Vector2 position = getSlotPosition(pointXs[point], pointYs[point], pointLiveCounts[point], pointCaps[point], pointSpacings[point], slotPosition);
+
+        TrumpClone clone;
+        if (freeClones.size > 0) {
+            clone = freeClones.pop();
+            clone.respawn(position.x, position.y, pointPrototypes[point]);
+        } else {
+            clone = new TrumpClone(pooledWorld, new Vector2(position), pointPrototypes[point], new RandomXS128(random.nextLong()));
+        }
+        clone.spawnPoint = point;
+        clone.populationGeneration = generation;
+        pointLiveCounts[point]++;
+        liveCount++;
+    }
+
+    private static void enqueue(int point) {
+        if (queueSize == respawnQueue.length) {
+            int[] grown = new int[respawnQueue.length * 2];
+            for (int i = 0; i < queueSize; i++) {
+                grown[i] = respawnQueue[(queueHead + i) % respawnQueue.length];
+            }
+            respawnQueue = grown;
+            queueHead = 0;
+        }
+        respawnQueue[(queueHead + queueSize) % respawnQueue.length] = point;
+        queueSize++;
+        pointQueuedCounts[point]++;
+    }
+
+    private static void growPoints() {
+        int capacity = pointXs.length * 2;
+        float[] xs = new float[capacity];
+        float[] ys = new float[capacity];
+        float[] spacings = new float[capacity];
+        int[] caps = new int[capacity];
+        int[] liveCounts = new int[capacity];
+        int[] queuedCounts = new int[capacity];
+        TrumpClone.Prototype[] prototypes = new TrumpClone.Prototype[capacity];
+        System.arraycopy(pointXs, 0, xs, 0, pointCount);
+        System.arraycopy(pointYs, 0, ys, 0, pointCount);
+        System.arraycopy(pointSpacings, 0, spacings, 0, pointCount);
+        System.arraycopy(pointCaps, 0, caps, 0, pointCount);
+        System.arraycopy(pointLiveCounts, 0, liveCounts, 0, pointCount);
+        System.arraycopy(pointQueuedCounts, 0, queuedCounts, 0, pointCount);
+        System.arraycopy(pointPrototypes, 0, prototypes, 0, pointCount);
+        pointXs = xs;
+        pointYs = ys;
+        pointSpacings = spacings;
+        pointCaps = caps;
+        pointLiveCounts = liveCounts;
+        pointQueuedCounts = queuedCounts;
+        pointPrototypes = prototypes;
+    }
+}
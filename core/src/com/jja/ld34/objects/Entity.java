@@ -1,24 +1,29 @@
 package com.jja.ld34.objects;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.Filter;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
 import com.jja.ld34.Ld34Game;
+import com.jja.ld34.Scheduler;
 
 public abstract class Entity extends Sprite implements Object {
 
-    protected Long id;
+    protected int id;
     protected World world;
     protected Body body;
 
     protected boolean shouldDestroy;
     protected boolean destroyed;
 
-    public Entity(World world, Vector2 initialPosition, Vector2 initialSize, short filterCategoryBit, short filterMaskBit, Texture initialTexture) {
-        super(initialTexture);
+    private Array<Scheduler.Task> scheduledTasks;
+    private final Vector2 impulse = new Vector2();  // reused by applyImpulse, so moving doesn't allocate
+
+    public Entity(World world, Vector2 initialPosition, Vector2 initialSize, short filterCategoryBit, short filterMaskBit, TextureRegion initialRegion) {
+        super(initialRegion);
 
         this.world = world;
         this.body = initializeBody(initialPosition, filterCategoryBit, filterMaskBit);
@@ -26,15 +31,20 @@ public abstract class Entity extends Sprite implements Object {
 
         setBounds(this.body.getPosition().x - getWidth() / 2, this.body.getPosition().y - getHeight() / 2, initialSize.x / Ld34Game.PIXELS_PER_METER, initialSize.y / Ld34Game.PIXELS_PER_METER);
         setPosition(this.body.getPosition().x - getWidth() / 2, this.body.getPosition().y - getHeight() / 2);
+        resetInterpolation();
 
         this.id = ObjectManager.registerObject(this);
     }
 
     @Override
-    public Long getId() {
+    public int getId() {
         return this.id;
     }
 
+    public Body getBody() {
+        return this.body;
+    }
+
     @Override
     public void update(float delta) {
     }
@@ -49,8 +59,84 @@ public abstract class Entity extends Sprite implements Object {
         return this.destroyed;
     }
 
+    // call after teleporting the body, so the sprite doesn't get smeared across the jump
+    public void resetInterpolation() {
+        int index = ObjectManager.getEntityIndex(this);
+        if (index != -1) {
+            ObjectManager.transforms.set(index, this);
+        }
+    }
+
+    // where the sprite is drawn this frame (interpolated), from ObjectManager's transform store once registered
+    @Override
+    public float getX() {
+        int index = ObjectManager.getEntityIndex(this);
+        return (index != -1) ? ObjectManager.transforms.drawX[index] : super.getX();
+    }
+
+    @Override
+    public float getY() {
+        int index = ObjectManager.getEntityIndex(this);
+        return (index != -1) ? ObjectManager.transforms.drawY[index] : super.getY();
+    }
+
+    // body center as of the latest step, in m, without a call into Box2D
+    public float getCenterX() {
+        int index = ObjectManager.getEntityIndex(this);
+        return (index != -1) ? ObjectManager.transforms.x[index] : this.body.getPosition().x;
+    }
+
+    public float getCenterY() {
+        int index = ObjectManager.getEntityIndex(this);
+        return (index != -1) ? ObjectManager.transforms.y[index] : this.body.getPosition().y;
+    }
+
+    // body velocity as of the latest step, without a call into Box2D
+    public float getVelocityX() {
+        int index = ObjectManager.getEntityIndex(this);
+        return (index != -1) ? ObjectManager.transforms.velocityX[index] : this.body.getLinearVelocity().x;
+    }
+
+    public float getVelocityY() {
+        int index = ObjectManager.getEntityIndex(this);
+        return (index != -1) ? ObjectManager.transforms.velocityY[index] : this.body.getLinearVelocity().y;
+    }
+
+    @Override
+    public void setAlpha(float alpha) {
+        super.setAlpha(alpha);
+        int index = ObjectManager.getEntityIndex(this);
+        if (index != -1) {
+            ObjectManager.transforms.color[index] = getColor().toFloatBits();
+        }
+    }
+
+    // applies an impulse (in N*s) to the center of the body
+    protected void applyImpulse(float x, float y) {
+        this.body.applyLinearImpulse(this.impulse.set(x, y), this.body.getWorldCenter(), true);
+    }
+
+    // schedules a repeating task that lives (and dies) with this entity
+    protected void scheduleTask(Scheduler.Task task, float delay, float interval) {
+        if (this.scheduledTasks == null) {
+            this.scheduledTasks = new Array<Scheduler.Task>(false, 2);
+        }
+        this.scheduledTasks.add(task);
+        Scheduler.schedule(task, delay, interval);
+    }
+
+    protected void cancelTasks() {
+        if (this.scheduledTasks != null) {
+            for (int i = 0; i < this.scheduledTasks.size; i++) {
+                this.scheduledTasks.get(i).cancel();
+            }
+            this.scheduledTasks.clear();
+        }
+    }
+
     @Override
     public void destroy() {
+        cancelTasks();
         this.world.destroyBody(this.body);
         destroyed = true;
         ObjectManager.deregisterObject(this);
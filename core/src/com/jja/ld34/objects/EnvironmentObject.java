@@ -7,7 +7,7 @@ import com.jja.ld34.Ld34Game;
 
 public class EnvironmentObject implements Object {
 
-    protected Long id;
+    protected int id;
     protected World world;
     protected Body body;
     protected Rectangle bounds;
@@ -33,12 +33,26 @@ public class EnvironmentObject implements Object {
         fixtureDef.filter.maskBits = FixtureFilterBit.ALL_FLAGS;
         fixtureDef.shape = shape;
         this.body.createFixture(fixtureDef).setUserData(this);
+        shape.dispose();
+
+        this.id = ObjectManager.registerObject(this);
+    }
+
+    // wraps an already built static body, e.g. a level's compiled walls (see WallCompiler)
+    public EnvironmentObject(World world, Body body) {
+        this.world = world;
+        this.body = body;
+        this.shouldDestroy = this.destroyed = false;
+
+        for (Fixture fixture : this.body.getFixtureList()) {
+            fixture.setUserData(this);
+        }
 
         this.id = ObjectManager.registerObject(this);
     }
 
     @Override
-    public Long getId() {
+    public int getId() {
         return this.id;
     }
 
@@ -1,9 +1,9 @@
 package com.jja.ld34.objects;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.jja.ld34.Ld34Game;
+import com.jja.ld34.graphics.SpriteSheets;
 import com.jja.ld34.scenes.Hud;
 
 //Object that Bernie has to collect to complete the exit to the next level.
@@ -12,7 +12,7 @@ public class ExitPart extends CollectibleEntity {
     public static final float SIZE = 32f;
 
     public ExitPart(World world, Vector2 initialPosition) {
-        super(world, initialPosition, SIZE, new Texture("battery/battery.png"));
+        super(world, initialPosition, SIZE, SpriteSheets.getRegion(SpriteSheets.BATTERY));
     }
 
     @Override
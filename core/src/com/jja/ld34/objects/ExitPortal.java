@@ -1,10 +1,9 @@
 package com.jja.ld34.objects;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
-import com.jja.ld34.FixtureFilterBit;
 import com.jja.ld34.Ld34Game;
+import com.jja.ld34.graphics.SpriteSheets;
 import com.jja.ld34.scenes.Hud;
 
 public class ExitPortal extends CollectibleEntity  {
@@ -18,7 +17,7 @@ public class ExitPortal extends CollectibleEntity  {
         this.hasBeenActivated = false;
         Gdx.app.error("ExitPortal", "Spawned!");*/
 
-        super(world, initialPosition, SIZE, new Texture("battery/battery.png"));
+        super(world, initialPosition, SIZE, SpriteSheets.getRegion(SpriteSheets.BATTERY));
         this.hasBeenActivated = false;
         this.setAlpha(0f);
     }
@@ -29,13 +28,11 @@ public class ExitPortal extends CollectibleEntity  {
     }
 
     @Override
-    public void onCollision(short collidingFixtureFilterCategoryBits) {
-        if (FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.PROTAGONIST_BIT)) {
-            if (Hud.exitPartsCount == 5) {
-                //TODO: Actually close the game loop
-                this.shouldDestroy = true;
-                hasBeenActivated = true;
-            }
+    public void collect() {
+        if (Hud.exitPartsCount == 5) {
+            //TODO: Actually close the game loop
+            this.shouldDestroy = true;
+            hasBeenActivated = true;
         }
     }
 
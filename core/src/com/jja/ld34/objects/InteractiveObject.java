@@ -1,6 +0,0 @@
-package com.jja.ld34.objects;
-
-public interface InteractiveObject {
-
-    void onCollision(short collidingFixtureFilterCategoryBits);
-}
@@ -2,7 +2,7 @@ package com.jja.ld34.objects;
 
 public interface Object {
 
-    Long getId();
+    int getId();
     boolean shouldDestroy();
     boolean isDestroyed();
     void update(float delta);
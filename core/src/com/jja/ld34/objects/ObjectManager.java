@@ -1,55 +1,263 @@
 package com.jja.ld34.objects;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-
-import java.util.HashMap;
-import java.util.Iterator;
+import com.badlogic.gdx.utils.IntArray;
 
 public class ObjectManager {
 
-    private static long nextId = 0;
-    private static HashMap<Long, Object> registeredObjects = new HashMap<Long, Object>();
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NOT_REGISTERED = -1;
+
+    // dense, unordered stores: removal swaps the last element into the hole so update/draw are linear scans
+    private static Object[] registeredObjects = new Object[INITIAL_CAPACITY];
+    private static int registeredObjectCount = 0;
+    private static Entity[] registeredEntities = new Entity[INITIAL_CAPACITY];
+    private static int registeredEntityCount = 0;
+
+    // indexed by id, pointing into the dense stores above
+    private static int[] objectIndices = newIndexTable(INITIAL_CAPACITY);
+    private static int[] entityIndices = newIndexTable(INITIAL_CAPACITY);
+
+    // destroys are deferred until flushDestroyedObjects() so nothing is removed mid-iteration or mid-step
+    private static Object[] pendingDestroys = new Object[INITIAL_CAPACITY];
+    private static int pendingDestroyCount = 0;
+    private static int lastFlushedCount = 0;
 
-    public static boolean isObjectRegistered(String id) {
-        return registeredObjects.containsKey(id);
+    // transform and kinematic state of registeredEntities, by the same dense index
+    static TransformStore transforms = new TransformStore();
+
+    private static int lastDrawnEntityCount = 0;
+
+    private static int nextId = 0;
+    private static IntArray freeIds = new IntArray(INITIAL_CAPACITY);
+
+    public static boolean isObjectRegistered(int id) {
+        return id >= 0 && id < objectIndices.length && objectIndices[id] != NOT_REGISTERED;
     }
 
-    public static long registerObject(Object object) {
-        registeredObjects.put(nextId, object);
-        return nextId++;
+    public static int registerObject(Object object) {
+        int id = (freeIds.size > 0) ? freeIds.pop() : nextId++;
+        if (id >= objectIndices.length) {
+            objectIndices = growIndexTable(objectIndices, id);
+            entityIndices = growIndexTable(entityIndices, id);
+        }
+
+        if (registeredObjectCount == registeredObjects.length) {
+            Object[] grown = new Object[registeredObjectCount * 2];
+            System.arraycopy(registeredObjects, 0, grown, 0, registeredObjectCount);
+            registeredObjects = grown;
+        }
+        objectIndices[id] = registeredObjectCount;
+        registeredObjects[registeredObjectCount++] = object;
+
+        // the drawable check happens once here instead of on every draw pass
+        if (object instanceof Entity) {
+            if (registeredEntityCount == registeredEntities.length) {
+                Entity[] grown = new Entity[registeredEntityCount * 2];
+                System.arraycopy(registeredEntities, 0, grown, 0, registeredEntityCount);
+                registeredEntities = grown;
+            }
+            entityIndices[id] = registeredEntityCount;
+            registeredEntities[registeredEntityCount] = (Entity) object;
+            transforms.ensureCapacity(registeredEntities.length);
+            transforms.set(registeredEntityCount++, (Entity) object);
+        }
+        return id;
     }
 
     public static void deregisterObject(Object object) {
-        registeredObjects.remove(object.getId());
+        int id = object.getId();
+        // pooled objects keep their old id once deregisterAllObjects() hands ids out again, so it may be someone else's
+        if (!isObjectRegistered(id) || registeredObjects[objectIndices[id]] != object) {
+            return;
+        }
+
+        int index = objectIndices[id];
+        Object last = registeredObjects[--registeredObjectCount];
+        registeredObjects[index] = last;
+        registeredObjects[registeredObjectCount] = null;
+        objectIndices[last.getId()] = index;
+        objectIndices[id] = NOT_REGISTERED;
+
+        index = entityIndices[id];
+        if (index != NOT_REGISTERED) {
+            Entity lastEntity = registeredEntities[--registeredEntityCount];
+            registeredEntities[index] = lastEntity;
+            transforms.move(registeredEntityCount, index);
+            registeredEntities[registeredEntityCount] = null;
+            entityIndices[lastEntity.getId()] = index;
+            entityIndices[id] = NOT_REGISTERED;
+        }
+
+        freeIds.add(id);
     }
 
     public static void deregisterAllObjects() {
-        for (Iterator<Object> objects = registeredObjects.values().iterator(); objects.hasNext();) {
-            Object object = objects.next();
-            object.destroy();
+        // walk backwards so each destroy only ever swaps out the last element
+        for (int i = registeredObjectCount - 1; i >= 0; i--) {
+            if (i < registeredObjectCount) {
+                registeredObjects[i].destroy();
+            }
+        }
+
+        // anything that didn't deregister itself on destroy is dropped here
+        for (int i = 0; i < registeredObjects.length; i++) {
+            registeredObjects[i] = null;
+        }
+        for (int i = 0; i < registeredEntities.length; i++) {
+            registeredEntities[i] = null;
+        }
+        for (int i = 0; i < pendingDestroyCount; i++) {
+            pendingDestroys[i] = null;
+        }
+        registeredObjectCount = registeredEntityCount = pendingDestroyCount = 0;
+        for (int i = 0; i < objectIndices.length; i++) {
+            objectIndices[i] = entityIndices[i] = NOT_REGISTERED;
         }
+        freeIds.clear();
+        nextId = 0;
+    }
+
+    public static void queueDestroy(Object object) {
+        if (pendingDestroyCount == pendingDestroys.length) {
+            Object[] grown = new Object[pendingDestroyCount * 2];
+            System.arraycopy(pendingDestroys, 0, grown, 0, pendingDestroyCount);
+            pendingDestroys = grown;
+        }
+        pendingDestroys[pendingDestroyCount++] = object;
     }
 
     public static void updateAllObjects(float delta) {
-        for (Iterator<Object> objects = registeredObjects.values().iterator(); objects.hasNext();) {
-            Object object = objects.next();
+        for (int i = 0; i < registeredObjectCount; i++) {
+            Object object = registeredObjects[i];
 
-            if (object.shouldDestroy() && !object.isDestroyed()) {
-                object.destroy();
-                break;
+            if (object.shouldDestroy()) {
+                if (!object.isDestroyed()) {
+                    queueDestroy(object);
+                }
+                continue;
             }
 
-            // only update objects that have not been destroyed
+            // only update objects that are not about to be destroyed
             object.update(delta);
         }
     }
 
+    /**
+     * Destroys everything queued since the last flush in one batch, including its Box2D body.
+     * Must be called outside of World.step, since bodies can't be destroyed while the world is locked.
+     */
+    public static void flushDestroyedObjects() {
+        // destroy() may queue further objects, so the count is re-read every iteration
+        int flushed = 0;
+        for (int i = 0; i < pendingDestroyCount; i++) {
+            Object object = pendingDestroys[i];
+            pendingDestroys[i] = null;
+            if (!object.isDestroyed()) {
+                object.destroy();
+                flushed++;
+            }
+        }
+        pendingDestroyCount = 0;
+        lastFlushedCount = flushed;
+    }
+
+    // objects destroyed by the last flushDestroyedObjects()
+    public static int getLastFlushedCount() {
+        return lastFlushedCount;
+    }
+
     public static void drawAllEntities(SpriteBatch spriteBatch) {
-        for (Iterator<Object> objects = registeredObjects.values().iterator(); objects.hasNext();) {
-            Object object = objects.next();
-            if (object instanceof Entity) {
-                ((Entity) object).draw(spriteBatch);
+        float batchColor = spriteBatch.getPackedColor();
+        for (int i = 0, n = registeredEntityCount; i < n; i++) {
+            drawEntity(spriteBatch, i);
+        }
+        spriteBatch.setColor(batchColor);
+        lastDrawnEntityCount = registeredEntityCount;
+    }
+
+    /**
+     * Like drawAllEntities, but skips every sprite that doesn't overlap the given view rectangle (in world units).
+     * Entities move every step, so there's no index to keep up to date: it's one bounds test per entity over the
+     * transform store's dense arrays, in the same order as drawAllEntities, so overlaps don't flicker.
+     */
+    public static void drawEntitiesInView(SpriteBatch spriteBatch, float x, float y, float width, float height) {
+        TransformStore store = transforms;
+        float right = x + width;
+        float top = y + height;
+
+        float batchColor = spriteBatch.getPackedColor();
+        int drawn = 0;
+        for (int i = 0, n = registeredEntityCount; i < n; i++) {
+            float drawX = store.drawX[i];
+            float drawY = store.drawY[i];
+            if (drawX < right && drawY < top && drawX + store.halfWidth[i] * 2 > x && drawY + store.halfHeight[i] * 2 > y) {
+                drawEntity(spriteBatch, i);
+                drawn++;
             }
         }
+        spriteBatch.setColor(batchColor);
+        lastDrawnEntityCount = drawn;
+    }
+
+    // straight from the transform store; the entity only supplies its current frame (a Sprite is a TextureRegion)
+    private static void drawEntity(SpriteBatch spriteBatch, int index) {
+        TransformStore store = transforms;
+        if (store.color[index] != spriteBatch.getPackedColor()) {
+            spriteBatch.setColor(store.color[index]);
+        }
+        spriteBatch.draw(registeredEntities[index], store.drawX[index], store.drawY[index], store.halfWidth[index] * 2, store.halfHeight[index] * 2);
+    }
+
+    // entities submitted to the batch by the last draw call, out of getEntityCount()
+    public static int getLastDrawnEntityCount() {
+        return lastDrawnEntityCount;
+    }
+
+    // call right before each world step
+    public static void captureEntityPositions() {
+        transforms.capture(registeredEntityCount);
+    }
+
+    // call right after each world step; reads every entity's body into the transform store in one pass
+    public static void syncEntityTransforms() {
+        transforms.sync(registeredEntities, registeredEntityCount);
+    }
+
+    // places every sprite alpha (0..1) of the way between its previous and current body position
+    public static void interpolateAllEntities(float alpha) {
+        transforms.interpolate(registeredEntityCount, alpha);
+    }
+
+    // dense index of a registered entity into the transform store, or -1
+    static int getEntityIndex(Entity entity) {
+        int id = entity.getId();
+        if (id < 0 || id >= entityIndices.length) {
+            return NOT_REGISTERED;
+        }
+        int index = entityIndices[id];
+        return (index != NOT_REGISTERED && registeredEntities[index] == entity) ? index : NOT_REGISTERED;
+    }
+
+    public static int getObjectCount() {
+        return registeredObjectCount;
+    }
+
+    public static int getEntityCount() {
+        return registeredEntityCount;
+    }
+
+    private static int[] newIndexTable(int capacity) {
+        int[] table = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            table[i] = NOT_REGISTERED;
+        }
+        return table;
+    }
+
+    private static int[] growIndexTable(int[] table, int minIndex) {
+        int[] grown = newIndexTable(Math.max(table.length * 2, minIndex + 1));
+        System.arraycopy(table, 0, grown, 0, table.length);
+        return grown;
     }
 }
@@ -0,0 +1,162 @@
+package com.jja.ld34.objects;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Lightweight entities with no Sprite, no Box2D body and no Object of their own (sparks, debris): each one is just a
+ * row in these parallel arrays, about 85 bytes, so tens of thousands cost a flat footprint and a couple of linear
+ * passes per frame. They move in a straight line at a constant velocity, fade out over their lifetime and touch
+ * nothing. Anything that has to collide or react stays an Entity.
+ *
+ * Dense like ObjectManager's stores: a particle that runs out of life has the last one swapped into its place.
+ */
+public class ParticleManager {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // positions are the particle's center, in m; velocities in m/s; times in s
+    private static float[] xs = new float[INITIAL_CAPACITY];
+    private static float[] ys = new float[INITIAL_CAPACITY];
+    private static float[] previousXs = new float[INITIAL_CAPACITY];
+    private static float[] previousYs = new float[INITIAL_CAPACITY];
+    private static float[] velocityXs = new float[INITIAL_CAPACITY];
+    private static float[] velocityYs = new float[INITIAL_CAPACITY];
+    private static float[] lives = new float[INITIAL_CAPACITY];     // left to live
+    private static float[] lifetimes = new float[INITIAL_CAPACITY]; // lived in total, for the fade
+    private static float[] halfWidths = new float[INITIAL_CAPACITY];
+    private static float[] halfHeights = new float[INITIAL_CAPACITY];
+    private static TextureRegion[] regions = new TextureRegion[INITIAL_CAPACITY];
+    private static int count = 0;
+
+    // lower left corner this frame, interpolated between the last two steps, in m
+    private static float[] drawXs = new float[INITIAL_CAPACITY];
+    private static float[] drawYs = new float[INITIAL_CAPACITY];
+
+    private static int lastDrawnCount = 0;
+
+    // adds a particle centered at (x, y) in m, moving at (velocityX, velocityY) m/s, that fades out over life s
+    public static void spawn(float x, float y, float velocityX, float velocityY, float life, float width, float height, TextureRegion region) {
+        if (count == xs.length) {
+            grow();
+        }
+        int index = count++;
+        xs[index] = previousXs[index] = x;
+        ys[index] = previousYs[index] = y;
+        velocityXs[index] = velocityX;
+        velocityYs[index] = velocityY;
+        lives[index] = lifetimes[index] = Math.max(life, Float.MIN_VALUE);
+        halfWidths[index] = width / 2;
+        halfHeights[index] = height / 2;
+        regions[index] = region;
+        drawXs[index] = x - halfWidths[index];
+        drawYs[index] = y - halfHeights[index];
+    }
+
+    // moves and ages every particle by one step, dropping the ones that have run out; call once per step
+    public static void update(float delta) {
+        System.arraycopy(xs, 0, previousXs, 0, count);
+        System.arraycopy(ys, 0, previousYs, 0, count);
+        for (int i = 0; i < count; i++) {
+            xs[i] += velocityXs[i] * delta;
+            ys[i] += velocityYs[i] * delta;
+            lives[i] -= delta;
+        }
+
+        // walk backwards so each removal only ever swaps in a particle that has already been checked
+        for (int i = count - 1; i >= 0; i--) {
+            if (lives[i] <= 0) {
+                remove(i);
+            }
+        }
+    }
+
+    // places every particle alpha (0..1) of the way between its previous and current position
+    public static void interpolate(float alpha) {
+        for (int i = 0; i < count; i++) {
+            drawXs[i] = previousXs[i] + (xs[i] - previousXs[i]) * alpha - halfWidths[i];
+            drawYs[i] = previousYs[i] + (ys[i] - previousYs[i]) * alpha - halfHeights[i];
+        }
+    }
+
+    // draws every particle that overlaps the given view rectangle (in world units), straight from the arrays
+    public static void drawInView(SpriteBatch spriteBatch, float x, float y, float width, float height) {
+        float right = x + width;
+        float top = y + height;
+
+        float batchColor = spriteBatch.getPackedColor();
+        int drawn = 0;
+        for (int i = 0; i < count; i++) {
+            float drawX = drawXs[i];
+            float drawY = drawYs[i];
+            if (drawX < right && drawY < top && drawX + halfWidths[i] * 2 > x && drawY + halfHeights[i] * 2 > y) {
+                spriteBatch.setColor(Color.toFloatBits(1f, 1f, 1f, lives[i] / lifetimes[i]));
+                spriteBatch.draw(regions[i], drawX, drawY, halfWidths[i] * 2, halfHeights[i] * 2);
+                drawn++;
+            }
+        }
+        spriteBatch.setColor(batchColor);
+        lastDrawnCount = drawn;
+    }
+
+    // drops every particle, e.g. when the level they were in goes away
+    public static void clear() {
+        for (int i = 0; i < count; i++) {
+            regions[i] = null;
+        }
+        count = 0;
+        lastDrawnCount = 0;
+    }
+
+    public static int getCount() {
+        return count;
+    }
+
+    public static int getLastDrawnCount() {
+        return lastDrawnCount;
+    }
+
+    private static void remove(int index) {
+        int last = --count;
+        xs[index] = xs[last];
+        ys[index] = ys[last];
+        previousXs[index] = previousXs[last];
+        previousYs[index] = previousYs[last];
+        velocityXs[index] = velocityXs[last];
+        velocityYs[index] = velocityYs[last];
+        lives[index] = lives[last];
+        lifetimes[index] = lifetimes[last];
+        halfWidths[index] = halfWidths[last];
+        halfHeights[index] = halfHeights[last];
+        regions[index] = regions[last];
+        drawXs[index] = drawXs[last];
+        drawYs[index] = drawYs[last];
+        regions[last] = null;
+    }
+
+    private static void grow() {
+        int capacity = xs.length * 2;
+        xs = grow(xs, capacity);
+        ys = grow(ys, capacity);
+        previousXs = grow(previousXs, capacity);
+        previousYs = grow(previousYs, capacity);
+        velocityXs = grow(velocityXs, capacity);
+        velocityYs = grow(velocityYs, capacity);
+        lives = grow(lives, capacity);
+        lifetimes = grow(lifetimes, capacity);
+        halfWidths = grow(halfWidths, capacity);
+        halfHeights = grow(halfHeights, capacity);
+        drawXs = grow(drawXs, capacity);
+        drawYs = grow(drawYs, capacity);
+        TextureRegion[] grownRegions = new TextureRegion[capacity];
+        System.arraycopy(regions, 0, grownRegions, 0, count);
+        regions = grownRegions;
+    }
+
+    private static float[] grow(float[] values, int capacity) {
+        float[] grown = new float[capacity];
+        System.arraycopy(values, 0, grown, 0, count);
+        return grown;
+    }
+}
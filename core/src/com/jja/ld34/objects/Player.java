@@ -1,25 +1,25 @@
 package com.jja.ld34.objects;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Timer;
+import com.jja.ld34.Direction;
 import com.jja.ld34.FixtureFilterBit;
 import com.jja.ld34.Ld34Game;
+import com.jja.ld34.Scheduler;
 import com.jja.ld34.Trait;
+import com.jja.ld34.TraitModifiers;
+import com.jja.ld34.graphics.SpriteSheets;
 import com.jja.ld34.scenes.Hud;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Random;
 
-public class Player extends Entity implements InteractiveObject {
+public class Player extends Entity {
 
     private static final int SPRITE_SIZE = 32;  // in px
     private static final float BASE_SIZE = 32f;
@@ -31,108 +31,80 @@ public class Player extends Entity implements InteractiveObject {
         DYING
     }
 
-    private enum Direction {
-        UP,
-        DOWN,
-        LEFT,
-        RIGHT
-    }
-
     private Body body;
 
     private Direction currentDirection;
     private Direction previousDirection;
     private State currentState;
     private State previousState;
-    private HashMap<Direction, TextureRegion> idlingTextureRegionMap;
-    private HashMap<Direction, Animation> movingAnimationMap;
     private float animationTimer;
-    private List<Trait> currentTraits;
+
+    // resolved from the traits once, so the per-frame input path does no lookups and allocates nothing
+    private TraitModifiers traits;
+    private float movementSpeed;
+    private float frictionFactor;
+    private final TextureRegion[] idlingRegions = new TextureRegion[Direction.COUNT];
+    private final Animation[] movingAnimations = new Animation[Direction.COUNT];
+
+    // input sampled by handleInput(), waiting for the next step's applyInput()
+    private Direction pendingMove;
+    private boolean movementKeyHeld;
+
     private Sound deathSound;
     private Sound respawnSound;
 
     public Player(World world, Vector2 initialPosition) {
-        super(world, initialPosition, new Vector2(BASE_SIZE, BASE_SIZE), FixtureFilterBit.PROTAGONIST_BIT, FixtureFilterBit.ALL_FLAGS, new Texture("bernie/bernie.png"));
+        this(world, initialPosition, new RandomXS128());
+    }
+
+    // traits are rolled from the given random
+    public Player(World world, Vector2 initialPosition, Random random) {
+        super(world, initialPosition, new Vector2(BASE_SIZE, BASE_SIZE), FixtureFilterBit.PROTAGONIST_BIT, FixtureFilterBit.ALL_FLAGS, SpriteSheets.getRegion(SpriteSheets.BERNIE));
 
         this.currentDirection = this.previousDirection = Direction.DOWN;
         this.currentState = this.previousState = State.IDLING;
         this.animationTimer = 0;
-        this.currentTraits = Trait.getRandomTraits(4);  // TODO: more traits per level?
-        Hud.traitDescription = Arrays.asList(this.currentTraits).toString().replaceAll("[\\[\\]]", "").replace(", ", "") + "BERN";
-
-        if (currentTraits.contains(Trait.NAKED)) {
-            setTexture(new Texture("bernie/bernie_naked.png"));
-        } else if (currentTraits.contains(Trait.REDTIE)) {
-            setTexture(new Texture("bernie/bernie_redtie.png"));
-        } else if (currentTraits.contains(Trait.COLONEL)) {
-            setTexture(new Texture("bernie/bernie_colonel.png"));
-        }
+        this.traits = Trait.getRandomModifiers(random, 4);  // TODO: more traits per level?
+        Hud.traitDescription = Arrays.asList(this.traits.getTraits()).toString().replaceAll("[\\[\\]]", "").replace(", ", "") + "BERN";
+        this.movementSpeed = BASE_MOVEMENT_SPEED * this.traits.getSpeedMultiplier();
+        this.frictionFactor = this.traits.getFrictionMultiplier();
+
+        String spriteSheet = this.traits.getSpriteSheet(SpriteSheets.BERNIE);
 
-        // setup idling texture regions
-        this.idlingTextureRegionMap = new HashMap<Direction, TextureRegion>(4);
-        this.idlingTextureRegionMap.put(Direction.DOWN, new TextureRegion(getTexture(), 0, 0, SPRITE_SIZE, SPRITE_SIZE));
-        this.idlingTextureRegionMap.put(Direction.LEFT, new TextureRegion(getTexture(), 4 * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        this.idlingTextureRegionMap.put(Direction.RIGHT, new TextureRegion(getTexture(), 7 * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        this.idlingTextureRegionMap.put(Direction.UP, new TextureRegion(getTexture(), 10 * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
+        // setup idling texture regions (shared across all instances through the sprite sheet cache)
+        this.idlingRegions[Direction.DOWN.ordinal()] = SpriteSheets.getFrame(spriteSheet, SPRITE_SIZE, 0);
+        this.idlingRegions[Direction.LEFT.ordinal()] = SpriteSheets.getFrame(spriteSheet, SPRITE_SIZE, 4);
+        this.idlingRegions[Direction.RIGHT.ordinal()] = SpriteSheets.getFrame(spriteSheet, SPRITE_SIZE, 7);
+        this.idlingRegions[Direction.UP.ordinal()] = SpriteSheets.getFrame(spriteSheet, SPRITE_SIZE, 10);
 
         // setup animations
-        this.movingAnimationMap = new HashMap<Direction, Animation>(4);
-        Array<TextureRegion> frames;
-        frames = new Array<TextureRegion>();
-        for (int i = 0; i <= 2; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.DOWN, new Animation(getAnimationFramerate(), frames));
-        frames = new Array<TextureRegion>();
-        for (int i = 3; i <= 5; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.LEFT, new Animation(getAnimationFramerate(), frames));
-        frames = new Array<TextureRegion>();
-        for (int i = 6; i <= 8; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.RIGHT, new Animation(getAnimationFramerate(), frames));
-        frames = new Array<TextureRegion>();
-        for (int i = 9; i <= 11; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.UP, new Animation(getAnimationFramerate(), frames));
+        this.movingAnimations[Direction.DOWN.ordinal()] = SpriteSheets.getAnimation(spriteSheet, SPRITE_SIZE, 0, 2, getAnimationFramerate());
+        this.movingAnimations[Direction.LEFT.ordinal()] = SpriteSheets.getAnimation(spriteSheet, SPRITE_SIZE, 3, 5, getAnimationFramerate());
+        this.movingAnimations[Direction.RIGHT.ordinal()] = SpriteSheets.getAnimation(spriteSheet, SPRITE_SIZE, 6, 8, getAnimationFramerate());
+        this.movingAnimations[Direction.UP.ordinal()] = SpriteSheets.getAnimation(spriteSheet, SPRITE_SIZE, 9, 11, getAnimationFramerate());
 
-        setRegion(this.idlingTextureRegionMap.get(this.currentDirection));
+        setRegion(this.idlingRegions[this.currentDirection.ordinal()]);
 
         this.deathSound = Gdx.audio.newSound(Gdx.files.internal("bernie/death.mp3"));
         this.respawnSound = Gdx.audio.newSound(Gdx.files.internal("bernie/respawn.mp3"));
         this.respawnSound.play(0.5f);
     }
 
+    public TraitModifiers getTraits() {
+        return this.traits;
+    }
+
     public int getUpKey() {
-        if (currentTraits.contains(Trait.REVERSE)) {
-            return Input.Keys.DOWN;
-        } else {
-            return Input.Keys.UP;
-        }
+        return this.traits.getKey(Direction.UP);
     }
     public int getDownKey() {
-        if (currentTraits.contains(Trait.REVERSE)) {
-            return Input.Keys.UP;
-        } else {
-            return Input.Keys.DOWN;
-        }
+        return this.traits.getKey(Direction.DOWN);
     }
     public int getLeftKey() {
-        if (currentTraits.contains(Trait.REVERSE)) {
-            return Input.Keys.RIGHT;
-        } else {
-            return Input.Keys.LEFT;
-        }
+        return this.traits.getKey(Direction.LEFT);
     }
     public int getRightKey() {
-        if (currentTraits.contains(Trait.REVERSE)) {
-            return Input.Keys.LEFT;
-        } else {
-            return Input.Keys.RIGHT;
-        }
+        return this.traits.getKey(Direction.RIGHT);
     }
 
     public float getSize() {
@@ -140,74 +112,71 @@ public class Player extends Entity implements InteractiveObject {
     }
 
     public float getMovementSpeed() {
-        if (currentTraits.contains(Trait.HYPER)) {
-            return BASE_MOVEMENT_SPEED * 2;
-        } else {
-            return BASE_MOVEMENT_SPEED;
-        }
+        return this.movementSpeed;
     }
     public float getAnimationFramerate() {
         return 1 / 15f;
     }
 
-    public float getFriction(boolean inXDir) {
-        if (inXDir) {
-            if (currentTraits.contains(Trait.SLIPPERY)) {
-                return -this.body.getLinearVelocity().x * 0.05f;
-            } else {
-                return -this.body.getLinearVelocity().x;
-            }
-        } else {
-            if (currentTraits.contains(Trait.SLIPPERY)) {
-                return -this.body.getLinearVelocity().y * 0.05f;
-            } else {
-                return -this.body.getLinearVelocity().y;
-            }
+    /**
+     * Samples the keys; call once per rendered frame. Nothing moves until {@link #applyInput()} runs in the next fixed
+     * step, so how fast the player goes doesn't depend on the frame rate. A key pressed on a frame without a step is
+     * held on to until there is one.
+     */
+    public void handleInput() {
+        if (Gdx.input.isKeyJustPressed(getUpKey())) {
+            this.pendingMove = Direction.UP;
+        } else if (Gdx.input.isKeyJustPressed(getDownKey())) {
+            this.pendingMove = Direction.DOWN;
+        } else if (Gdx.input.isKeyJustPressed(getLeftKey())) {
+            this.pendingMove = Direction.LEFT;
+        } else if (Gdx.input.isKeyJustPressed(getRightKey())) {
+            this.pendingMove = Direction.RIGHT;
         }
+        this.movementKeyHeld = Gdx.input.isKeyPressed(getUpKey()) || Gdx.input.isKeyPressed(getDownKey()) || Gdx.input.isKeyPressed(getLeftKey()) || Gdx.input.isKeyPressed(getRightKey());
     }
 
-    public void handleInput() {
+    // applies the sampled input to the body; call once per fixed step, outside of World.step
+    public void applyInput() {
+        // one read of the velocity for the whole step; Box2D hands back the body's own vector, so nothing is allocated
+        Vector2 velocity = this.body.getLinearVelocity();
+        float frictionX = -velocity.x * this.frictionFactor;
+        float frictionY = -velocity.y * this.frictionFactor;
+
+        Direction direction = this.pendingMove;
+        this.pendingMove = null;
         if (this.currentState == State.DYING) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), getFriction(false)), this.body.getWorldCenter(), true);
+            applyImpulse(frictionX, frictionY);
             return;
         }
 
-        if (Gdx.input.isKeyJustPressed(getUpKey())) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), getMovementSpeed()), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.UP;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
-        } else if (Gdx.input.isKeyJustPressed(getDownKey())) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), -getMovementSpeed()), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.DOWN;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
-        } else if (Gdx.input.isKeyJustPressed(getLeftKey())) {
-            this.body.applyLinearImpulse(new Vector2(-getMovementSpeed(), getFriction(false)), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.LEFT;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
-        } else if (Gdx.input.isKeyJustPressed(getRightKey())) {
-            this.body.applyLinearImpulse(new Vector2(getMovementSpeed(), getFriction(false)), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.RIGHT;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
-        } else if (!Gdx.input.isKeyPressed(getUpKey()) && !Gdx.input.isKeyPressed(getDownKey()) && !Gdx.input.isKeyPressed(getLeftKey()) && !Gdx.input.isKeyPressed(getRightKey())) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), getFriction(false)), this.body.getWorldCenter(), true);
+        if (direction == Direction.UP) {
+            applyImpulse(frictionX, this.movementSpeed);
+            move(Direction.UP);
+        } else if (direction == Direction.DOWN) {
+            applyImpulse(frictionX, -this.movementSpeed);
+            move(Direction.DOWN);
+        } else if (direction == Direction.LEFT) {
+            applyImpulse(-this.movementSpeed, frictionY);
+            move(Direction.LEFT);
+        } else if (direction == Direction.RIGHT) {
+            applyImpulse(this.movementSpeed, frictionY);
+            move(Direction.RIGHT);
+        } else if (!this.movementKeyHeld) {
+            applyImpulse(frictionX, frictionY);
 
             this.currentState = State.IDLING;
             this.previousState = this.currentState;
         }
     }
 
+    private void move(Direction direction) {
+        this.currentDirection = direction;
+        this.currentState = State.MOVING;
+        this.previousDirection = this.currentDirection;
+        this.previousState = this.currentState;
+    }
+
     private TextureRegion getFrame(float delta) {
         if (this.previousState != this.currentState || this.previousDirection != this.currentDirection) {
             this.animationTimer = 0;
@@ -218,10 +187,10 @@ public class Player extends Entity implements InteractiveObject {
         TextureRegion textureRegion;
         switch (this.currentState) {
             case MOVING:
-                textureRegion = this.movingAnimationMap.get(this.currentDirection).getKeyFrame(this.animationTimer, true);
+                textureRegion = this.movingAnimations[this.currentDirection.ordinal()].getKeyFrame(this.animationTimer, true);
                 break;
             default:
-                textureRegion = this.idlingTextureRegionMap.get(this.currentDirection);
+                textureRegion = this.idlingRegions[this.currentDirection.ordinal()];
                 break;
         }
 
@@ -232,7 +201,6 @@ public class Player extends Entity implements InteractiveObject {
     public void update(float delta) {
         super.update(delta);
 
-        setPosition(this.body.getPosition().x - getWidth() / 2, this.body.getPosition().y - getHeight() / 2);
         setRegion(getFrame(delta));
     }
 
@@ -262,19 +230,13 @@ public class Player extends Entity implements InteractiveObject {
         this.currentState = State.DYING;
         this.deathSound.play(0.5f);
 
-        final Timer fadeOutDeathTimer = new Timer();
-        fadeOutDeathTimer.scheduleTask(new Timer.Task() {
+        scheduleTask(new Scheduler.Task() {
             private float lastAlpha = 1f;
 
             @Override
             public void run() {
-                if (isDestroyed()) {
-                    fadeOutDeathTimer.clear();
-                    return;
-                }
-
                 if (lastAlpha <= 0) {
-                    fadeOutDeathTimer.clear();
+                    cancel();
                     Hud.timeLeft = 0;
                     shouldDestroy = true;
                 } else {
@@ -293,15 +255,6 @@ public class Player extends Entity implements InteractiveObject {
         return this.body.getPosition();
     }
 
-    @Override
-    public void onCollision(short collidingFixtureFilterCategoryBits) {
-        if (!FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.ENVIRONMENT_BIT) && 
-                !FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.PROTAGONIST_BIT) && 
-                !FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.COLLECTIBLES_BIT)) {
-            kill();
-        }
-    }
-
     @Override
     public void destroy() {
         this.deathSound.dispose();
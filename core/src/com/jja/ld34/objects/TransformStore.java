@@ -0,0 +1,120 @@
+package com.jja.ld34.objects;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Transform;
+
+/**
+ * Transform and kinematic state of every registered entity, as struct-of-arrays indexed by the same dense index as
+ * ObjectManager's entity store (and kept dense the same way, by swapping the last entry into holes). Box2D is read
+ * once per step in one pass, by {@link #sync(Entity[], int)}; capture, interpolation, culling and drawing then only
+ * touch these flat float arrays instead of every entity's body and Sprite. This doesn't make entities any smaller,
+ * since each still owns its Sprite and body; things that only need to move and be drawn are ParticleManager's.
+ *
+ * Plain arrays rather than a direct FloatBuffer, so it also runs on GWT.
+ */
+class TransformStore {
+
+    // body center after the latest step, and before it, in m
+    float[] x = new float[0];
+    float[] y = new float[0];
+    float[] previousX = new float[0];
+    float[] previousY = new float[0];
+
+    float[] velocityX = new float[0];   // in m/s
+    float[] velocityY = new float[0];
+
+    // lower left corner of the sprite this frame, interpolated between the last two steps, in m
+    float[] drawX = new float[0];
+    float[] drawY = new float[0];
+    float[] halfWidth = new float[0];
+    float[] halfHeight = new float[0];
+
+    float[] color = new float[0];   // packed sprite color, for the alpha
+
+    public void ensureCapacity(int capacity) {
+        if (this.x.length >= capacity) {
+            return;
+        }
+        this.x = grow(this.x, capacity);
+        this.y = grow(this.y, capacity);
+        this.previousX = grow(this.previousX, capacity);
+        this.previousY = grow(this.previousY, capacity);
+        this.velocityX = grow(this.velocityX, capacity);
+        this.velocityY = grow(this.velocityY, capacity);
+        this.drawX = grow(this.drawX, capacity);
+        this.drawY = grow(this.drawY, capacity);
+        this.halfWidth = grow(this.halfWidth, capacity);
+        this.halfHeight = grow(this.halfHeight, capacity);
+        this.color = grow(this.color, capacity);
+    }
+
+    // fills index from the entity's body and sprite, with nothing to interpolate from
+    public void set(int index, Entity entity) {
+        this.halfWidth[index] = entity.getWidth() / 2;
+        this.halfHeight[index] = entity.getHeight() / 2;
+        this.color[index] = entity.getColor().toFloatBits();
+        read(index, entity.getBody());
+        reset(index);
+    }
+
+    // forgets the previous position at index, so the next frame doesn't interpolate across a teleport
+    public void reset(int index) {
+        this.previousX[index] = this.x[index];
+        this.previousY[index] = this.y[index];
+        this.drawX[index] = this.x[index] - this.halfWidth[index];
+        this.drawY[index] = this.y[index] - this.halfHeight[index];
+    }
+
+    public void move(int from, int to) {
+        this.x[to] = this.x[from];
+        this.y[to] = this.y[from];
+        this.previousX[to] = this.previousX[from];
+        this.previousY[to] = this.previousY[from];
+        this.velocityX[to] = this.velocityX[from];
+        this.velocityY[to] = this.velocityY[from];
+        this.drawX[to] = this.drawX[from];
+        this.drawY[to] = this.drawY[from];
+        this.halfWidth[to] = this.halfWidth[from];
+        this.halfHeight[to] = this.halfHeight[from];
+        this.color[to] = this.color[from];
+    }
+
+    // call right before each world step
+    public void capture(int count) {
+        System.arraycopy(this.x, 0, this.previousX, 0, count);
+        System.arraycopy(this.y, 0, this.previousY, 0, count);
+    }
+
+    // call right after each world step
+    public void sync(Entity[] entities, int count) {
+        for (int i = 0; i < count; i++) {
+            read(i, entities[i].getBody());
+        }
+    }
+
+    // places every sprite alpha (0..1) of the way between its previous and current body position
+    public void interpolate(int count, float alpha) {
+        float[] x = this.x, y = this.y, previousX = this.previousX, previousY = this.previousY;
+        for (int i = 0; i < count; i++) {
+            this.drawX[i] = previousX[i] + (x[i] - previousX[i]) * alpha - this.halfWidth[i];
+            this.drawY[i] = previousY[i] + (y[i] - previousY[i]) * alpha - this.halfHeight[i];
+        }
+    }
+
+    // one call into Box2D for the position and one for the velocity
+    private void read(int index, Body body) {
+        Transform transform = body.getTransform();
+        this.x[index] = transform.vals[Transform.POS_X];
+        this.y[index] = transform.vals[Transform.POS_Y];
+        Vector2 velocity = body.getLinearVelocity();
+        this.velocityX[index] = velocity.x;
+        this.velocityY[index] = velocity.y;
+    }
+
+    private static float[] grow(float[] values, int capacity) {
+        float[] grown = new float[capacity];
+        System.arraycopy(values, 0, grown, 0, values.length);
+        return grown;
+    }
+}
@@ -1,97 +1,141 @@
 package com.jja.ld34.objects;
 
 import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Timer;
+import com.jja.ld34.Direction;
 import com.jja.ld34.FixtureFilterBit;
 import com.jja.ld34.Ld34Game;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.ai.FlowField;
+import com.jja.ld34.graphics.SpriteSheets;
 
-import java.util.HashMap;
 import java.util.Random;
 
-public class TrumpClone extends Entity implements InteractiveObject {
+public class TrumpClone extends Entity implements AgentManager.Agent {
 
     private static final int SPRITE_SIZE = 32;  // in px
     private static final float BASE_SIZE = 32f;
-    private static final float BASE_MOVEMENT_SPEED = 1f;
+    private static final float ANIMATION_FRAME_DURATION = 1 / 7f;  // in s
 
     public enum State {
         IDLING,
         MOVING
     }
 
-    private enum Direction {
-        UP,
-        DOWN,
-        LEFT,
-        RIGHT
+    /**
+     * What every clone of one Archetype shares: its tuning and the sprite frames for each direction, resolved once
+     * (e.g. per level) instead of once per clone. Needs the sprite sheets to be acquired.
+     */
+    public static class Prototype {
+        private final float movementSpeed;
+        private final float thinkInterval;
+        private final TextureRegion[] idlingRegions = new TextureRegion[Direction.COUNT];
+        private final Animation[] movingAnimations = new Animation[Direction.COUNT];
+
+        public Prototype(Archetype archetype) {
+            this.movementSpeed = archetype.get(Archetype.Property.SPEED);
+            this.thinkInterval = archetype.get(Archetype.Property.THINK_INTERVAL);
+
+            this.idlingRegions[Direction.DOWN.ordinal()] = SpriteSheets.getFrame(SpriteSheets.TRUMP, SPRITE_SIZE, 0);
+            this.idlingRegions[Direction.LEFT.ordinal()] = SpriteSheets.getFrame(SpriteSheets.TRUMP, SPRITE_SIZE, 4);
+            this.idlingRegions[Direction.RIGHT.ordinal()] = SpriteSheets.getFrame(SpriteSheets.TRUMP, SPRITE_SIZE, 7);
+            this.idlingRegions[Direction.UP.ordinal()] = SpriteSheets.getFrame(SpriteSheets.TRUMP, SPRITE_SIZE, 10);
+
+            this.movingAnimations[Direction.DOWN.ordinal()] = SpriteSheets.getAnimation(SpriteSheets.TRUMP, SPRITE_SIZE, 0, 2, ANIMATION_FRAME_DURATION);
+            this.movingAnimations[Direction.LEFT.ordinal()] = SpriteSheets.getAnimation(SpriteSheets.TRUMP, SPRITE_SIZE, 3, 5, ANIMATION_FRAME_DURATION);
+            this.movingAnimations[Direction.RIGHT.ordinal()] = SpriteSheets.getAnimation(SpriteSheets.TRUMP, SPRITE_SIZE, 6, 8, ANIMATION_FRAME_DURATION);
+            this.movingAnimations[Direction.UP.ordinal()] = SpriteSheets.getAnimation(SpriteSheets.TRUMP, SPRITE_SIZE, 9, 11, ANIMATION_FRAME_DURATION);
+        }
     }
 
     private Body body;
+    private Prototype prototype;
+
+    // set by ClonePopulation for the clones it manages
+    int spawnPoint = -1;
+    int populationGeneration;
 
     private Direction currentDirection;
     private Direction previousDirection;
     private State currentState;
     private State previousState;
-    private HashMap<Direction, TextureRegion> idlingTextureRegionMap;
-    private HashMap<Direction, Animation> movingAnimationMap;
     private float animationTimer;
     private Random rand;
     private int lastKeyPressed;
 
+    // the move decided on, carried out by act()
+    private float intendedImpulseX;
+    private float intendedImpulseY;
+    private Direction intendedDirection;
+
+    // with the default archetype; spawning many clones should share one Prototype instead
     public TrumpClone(World world, Vector2 initialPosition) {
-        super(world, initialPosition, new Vector2(BASE_SIZE, BASE_SIZE), FixtureFilterBit.ENEMY_BIT, FixtureFilterBit.ALL_FLAGS, new Texture("trump/trump.png"));
+        this(world, initialPosition, new Prototype(new Archetype(Archetype.defaultValues())));
+    }
 
+    public TrumpClone(World world, Vector2 initialPosition, Prototype prototype) {
+        this(world, initialPosition, prototype, new RandomXS128());
+    }
+
+    // moves are drawn from the given random, which the clone keeps (across respawns too)
+    public TrumpClone(World world, Vector2 initialPosition, Prototype prototype, Random random) {
+        super(world, initialPosition, new Vector2(BASE_SIZE, BASE_SIZE), FixtureFilterBit.ENEMY_BIT, FixtureFilterBit.ALL_FLAGS, SpriteSheets.getRegion(SpriteSheets.TRUMP));
+
+        this.prototype = prototype;
         this.currentDirection = this.previousDirection = Direction.DOWN;
         this.currentState = this.previousState = State.IDLING;
         this.animationTimer = 0;
 
-        // setup idling texture regions
-        this.idlingTextureRegionMap = new HashMap<Direction, TextureRegion>(4);
-        this.idlingTextureRegionMap.put(Direction.DOWN, new TextureRegion(getTexture(), 0, 0, SPRITE_SIZE, SPRITE_SIZE));
-        this.idlingTextureRegionMap.put(Direction.LEFT, new TextureRegion(getTexture(), 4 * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        this.idlingTextureRegionMap.put(Direction.RIGHT, new TextureRegion(getTexture(), 7 * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        this.idlingTextureRegionMap.put(Direction.UP, new TextureRegion(getTexture(), 10 * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-
-        // setup animations
-        this.movingAnimationMap = new HashMap<Direction, Animation>(4);
-        Array<TextureRegion> frames;
-        frames = new Array<TextureRegion>();
-        for (int i = 0; i <= 2; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.DOWN, new Animation(getAnimationFramerate(), frames));
-        frames = new Array<TextureRegion>();
-        for (int i = 3; i <= 5; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.LEFT, new Animation(getAnimationFramerate(), frames));
-        frames = new Array<TextureRegion>();
-        for (int i = 6; i <= 8; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.RIGHT, new Animation(getAnimationFramerate(), frames));
-        frames = new Array<TextureRegion>();
-        for (int i = 9; i <= 11; i++) {
-            frames.add(new TextureRegion(getTexture(), i * SPRITE_SIZE, 0, SPRITE_SIZE, SPRITE_SIZE));
-        }
-        this.movingAnimationMap.put(Direction.UP, new Animation(getAnimationFramerate(), frames));
+        setRegion(prototype.idlingRegions[this.currentDirection.ordinal()]);
 
-        setRegion(this.idlingTextureRegionMap.get(this.currentDirection));
+        this.rand = random;
+        this.lastKeyPressed = -1;
+        scheduleThinking();
+    }
+
+    // staggered around the archetype's interval, but never so short that a clone thinks nearly every step
+    private void scheduleThinking() {
+        AgentManager.add(this, 1, (0.5f + rand.nextFloat()) * this.prototype.thinkInterval);
+    }
 
-        this.rand = new Random();
+    // brings a pooled clone back at the given position (in px), as if it had just been constructed there
+    void respawn(float x, float y, Prototype prototype) {
+        this.prototype = prototype;
+        this.body.setTransform((x / Ld34Game.PIXELS_PER_METER) + ((getSize() / 2) / Ld34Game.PIXELS_PER_METER), (y / Ld34Game.PIXELS_PER_METER) + ((getSize() / 2) / Ld34Game.PIXELS_PER_METER), 0);
+        this.body.setLinearVelocity(0, 0);
+        this.body.setAngularVelocity(0);
+        this.body.setActive(true);
+        setPosition(this.body.getPosition().x - getWidth() / 2, this.body.getPosition().y - getHeight() / 2);
+        resetInterpolation();
+
+        this.currentDirection = this.previousDirection = Direction.DOWN;
+        this.currentState = this.previousState = State.IDLING;
+        this.animationTimer = 0;
         this.lastKeyPressed = -1;
-        new Timer().scheduleTask(new Timer.Task() {
-            @Override
-            public void run() {
-                handleInput();
-            }
-        }, 1, rand.nextFloat() * 2);
+        setRegion(prototype.idlingRegions[this.currentDirection.ordinal()]);
+
+        this.shouldDestroy = this.destroyed = false;
+        this.id = ObjectManager.registerObject(this);
+        scheduleThinking();
+    }
+
+    void deactivate() {
+        this.body.setActive(false);
+        this.destroyed = true;
+        ObjectManager.deregisterObject(this);
+    }
+
+    @Override
+    public void destroy() {
+        AgentManager.remove(this);
+        // dead clones wait in ClonePopulation's pool with their body switched off; only overflow gets destroyed
+        if (!ClonePopulation.free(this)) {
+            super.destroy();
+        }
     }
 
     public int getUpKey() {
@@ -112,59 +156,95 @@ public class TrumpClone extends Entity implements InteractiveObject {
     }
 
     public float getMovementSpeed() {
-        return BASE_MOVEMENT_SPEED;
+        return this.prototype.movementSpeed;
     }
     public float getAnimationFramerate() {
-        return 1 / 7f;
+        return ANIMATION_FRAME_DURATION;
     }
 
     public float getFriction(boolean inXDir) {
         if (inXDir) {
-            return -this.body.getLinearVelocity().x;
+            return -getVelocityX();
         } else {
-            return -this.body.getLinearVelocity().y;
+            return -getVelocityY();
         }
     }
 
+    // picks a move and acts on it right away, i.e. what AgentManager does over two stages
     public void handleInput() {
-        lastKeyPressed = rand.nextInt((23 - 19) + 1) + 19;
+        decide();
+        act();
+    }
 
-        if (this.lastKeyPressed == getUpKey()) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), getMovementSpeed()), this.body.getWorldCenter(), true);
+    // reads only the step's transform snapshot, the flow field and the clone's own random, so clones can decide in parallel
+    @Override
+    public void decide() {
+        lastKeyPressed = getChaseKey();
+        if (lastKeyPressed == -1) {
+            // nothing to hunt, or no way to reach it from here, so wander
+            lastKeyPressed = rand.nextInt((23 - 19) + 1) + 19;
+        }
 
-            this.currentDirection = Direction.UP;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
+        float frictionX = getFriction(true);
+        float frictionY = getFriction(false);
+        if (this.lastKeyPressed == getUpKey()) {
+            intend(frictionX, this.prototype.movementSpeed, Direction.UP);
         } else if (this.lastKeyPressed == getDownKey()) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), -getMovementSpeed()), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.DOWN;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
+            intend(frictionX, -this.prototype.movementSpeed, Direction.DOWN);
         } else if (this.lastKeyPressed == getLeftKey()) {
-            this.body.applyLinearImpulse(new Vector2(-getMovementSpeed(), getFriction(false)), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.LEFT;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
+            intend(-this.prototype.movementSpeed, frictionY, Direction.LEFT);
         } else if (this.lastKeyPressed == getRightKey()) {
-            this.body.applyLinearImpulse(new Vector2(getMovementSpeed(), getFriction(false)), this.body.getWorldCenter(), true);
-
-            this.currentDirection = Direction.RIGHT;
-            this.currentState = State.MOVING;
-            this.previousDirection = this.currentDirection;
-            this.previousState = this.currentState;
-        } else if (this.lastKeyPressed != getUpKey() && this.lastKeyPressed != getDownKey() && this.lastKeyPressed != getLeftKey() && this.lastKeyPressed != getRightKey()) {
-            this.body.applyLinearImpulse(new Vector2(getFriction(true), getFriction(false)), this.body.getWorldCenter(), true);
+            intend(this.prototype.movementSpeed, frictionY, Direction.RIGHT);
+        } else {
+            intend(frictionX, frictionY, null);
+        }
+    }
 
+    @Override
+    public void act() {
+        applyImpulse(this.intendedImpulseX, this.intendedImpulseY);
+        if (this.intendedDirection != null) {
+            move(this.intendedDirection);
+        } else {
             this.currentState = State.IDLING;
             this.previousState = this.currentState;
         }
     }
 
+    // direction null to stand still
+    private void intend(float impulseX, float impulseY, Direction direction) {
+        this.intendedImpulseX = impulseX;
+        this.intendedImpulseY = impulseY;
+        this.intendedDirection = direction;
+    }
+
+    // the key that moves one tile closer to the player along the population's flow field, or -1
+    private int getChaseKey() {
+        FlowField field = ClonePopulation.getFlowField();
+        if (field == null) {
+            return -1;
+        }
+        switch (field.getDirection(getCenterX(), getCenterY())) {
+            case FlowField.UP:
+                return getUpKey();
+            case FlowField.DOWN:
+                return getDownKey();
+            case FlowField.LEFT:
+                return getLeftKey();
+            case FlowField.RIGHT:
+                return getRightKey();
+            default:
+                return -1;
+        }
+    }
+
+    private void move(Direction direction) {
+        this.currentDirection = direction;
+        this.currentState = State.MOVING;
+        this.previousDirection = this.currentDirection;
+        this.previousState = this.currentState;
+    }
+
     private TextureRegion getFrame(float delta) {
         if (this.previousState != this.currentState || this.previousDirection != this.currentDirection) {
             this.animationTimer = 0;
@@ -175,10 +255,10 @@ public class TrumpClone extends Entity implements InteractiveObject {
         TextureRegion textureRegion;
         switch (this.currentState) {
             case MOVING:
-                textureRegion = this.movingAnimationMap.get(this.currentDirection).getKeyFrame(this.animationTimer, true);
+                textureRegion = this.prototype.movingAnimations[this.currentDirection.ordinal()].getKeyFrame(this.animationTimer, true);
                 break;
             default:
-                textureRegion = this.idlingTextureRegionMap.get(this.currentDirection);
+                textureRegion = this.prototype.idlingRegions[this.currentDirection.ordinal()];
                 break;
         }
 
@@ -189,7 +269,6 @@ public class TrumpClone extends Entity implements InteractiveObject {
     public void update(float delta) {
         super.update(delta);
 
-        setPosition(this.body.getPosition().x - getWidth() / 2, this.body.getPosition().y - getHeight() / 2);
         setRegion(getFrame(delta));
     }
 
@@ -214,13 +293,4 @@ public class TrumpClone extends Entity implements InteractiveObject {
     public void kill() {
         this.shouldDestroy = true;
     }
-
-    @Override
-    public void onCollision(short collidingFixtureFilterCategoryBits) {
-        if (!FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.ENVIRONMENT_BIT) &&
-                !FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.COLLECTIBLES_BIT) &&
-                !FixtureFilterBit.contains(collidingFixtureFilterCategoryBits, FixtureFilterBit.ENEMY_BIT)) {
-            kill();
-        }
-    }
 }
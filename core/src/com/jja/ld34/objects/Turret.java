@@ -1,39 +1,61 @@
 package com.jja.ld34.objects;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.utils.Timer;
 import com.jja.ld34.FixtureFilterBit;
+import com.jja.ld34.GameSimulation;
 import com.jja.ld34.Ld34Game;
-import com.jja.ld34.screens.PlayScreen;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.graphics.SpriteSheets;
 
-public class Turret extends Entity {
+public class Turret extends Entity implements AgentManager.Agent {
 
     public static final float _width = 32f; //float specifies pixels
     public static final float _height = 48f;
     
     private String fireDirection = "LEFT";
-    private Timer gameStateTimer;
     private Vector2 _initialPosition;
     
-    private Texture bulletTexture = new Texture("turret_bullet/energy_ball.png");
-    private static final float bulletSpeed = 2f;
-    private Integer bulletOffsetX = 10;
-    private Integer bulletOffsetY = 30;
+    // what every turret of one Archetype shares, resolved once (e.g. per level) instead of once per turret
+    public static class Prototype {
+        private final float firePeriod;
+        private final float bulletOffsetX;
+        private final float bulletOffsetY;
+        private final Vector2[] bulletImpulses;
+        private final TextureRegion bulletRegion = SpriteSheets.getRegion(SpriteSheets.ENERGY_BALL);
+
+        public Prototype(Archetype archetype) {
+            this.firePeriod = archetype.get(Archetype.Property.FIRE_PERIOD);
+            this.bulletOffsetX = archetype.get(Archetype.Property.BULLET_OFFSET_X);
+            this.bulletOffsetY = archetype.get(Archetype.Property.BULLET_OFFSET_Y);
+
+            float bulletSpeed = archetype.get(Archetype.Property.BULLET_SPEED);
+            this.bulletImpulses = new Vector2[] {
+                    new Vector2(-bulletSpeed, 0),   //left
+                    new Vector2(bulletSpeed, 0),    //right
+                    new Vector2(0, bulletSpeed),    //up
+                    new Vector2(0, -bulletSpeed)    //down
+            };
+        }
+    }
+
+    private Prototype prototype;
     
     public Integer _turretLevel;
+    private boolean fireIntended = false;
     
+    // with the default archetype; spawning many turrets should share one Prototype instead
     public Turret (World world, Vector2 initialPosition, Integer level) {
-        super(world, initialPosition, new Vector2(_width, _height), FixtureFilterBit.TURRET_BIT, (short) (FixtureFilterBit.ALL_FLAGS & ~FixtureFilterBit.PROJECTILE_BIT), new Texture("turret/turret.png"));
+        this(world, initialPosition, level, new Prototype(new Archetype(Archetype.defaultValues())));
+    }
 
-        this.gameStateTimer = new Timer();
-        this.gameStateTimer.scheduleTask(new Timer.Task() {
-            @Override
-            public void run() {
-                fireBullet();
-            }
-        }, 3, 3);
+    public Turret (World world, Vector2 initialPosition, Integer level, Prototype prototype) {
+        super(world, initialPosition, new Vector2(_width, _height), FixtureFilterBit.TURRET_BIT, (short) (FixtureFilterBit.ALL_FLAGS & ~FixtureFilterBit.PROJECTILE_BIT), SpriteSheets.getRegion(SpriteSheets.TURRET));
+
+        this.prototype = prototype;
+        // outside the decision budget, so a wave of clones can't push volleys off their cadence
+        AgentManager.add(this, prototype.firePeriod, prototype.firePeriod, false);
         //Probably make him a solid object like terrain.
 
         _initialPosition = initialPosition;
@@ -45,19 +67,36 @@ public class Turret extends Entity {
         super.update(delta);
         
         if (ExitPortal.hasBeenActivated){
-            //shouldDestroy = true;
-            destroy();
+            shouldDestroy = true;
         }
     }
     
+    // turrets don't aim yet; they only decide whether to fire, which is only while their level is being played
+    @Override
+    public void decide() {
+        this.fireIntended = _turretLevel.equals(GameSimulation.currentLevel);
+    }
+
+    @Override
+    public void act() {
+        if (this.fireIntended) {
+            fireBullet();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        AgentManager.remove(this);
+        super.destroy();
+    }
+
     public void fireBullet() {
         //Fire a bullet based on fireDirection
 
-        if(_turretLevel.equals(PlayScreen.currentLevel)){
-            new TurretBullet(this.world, new Vector2(_initialPosition.x  + bulletOffsetX, _initialPosition.y + bulletOffsetY), new Vector2(-bulletSpeed, 0), bulletTexture); //left
-            new TurretBullet(this.world, new Vector2(_initialPosition.x  + bulletOffsetX, _initialPosition.y + bulletOffsetY), new Vector2(bulletSpeed, 0), bulletTexture); //right
-            new TurretBullet(this.world, new Vector2(_initialPosition.x  + bulletOffsetX, _initialPosition.y + bulletOffsetY), new Vector2(0, bulletSpeed), bulletTexture); //up
-            new TurretBullet(this.world, new Vector2(_initialPosition.x  + bulletOffsetX, _initialPosition.y + bulletOffsetY), new Vector2(0, -bulletSpeed), bulletTexture); //down
+        if(_turretLevel.equals(GameSimulation.currentLevel)){
+            for (Vector2 bulletImpulse : this.prototype.bulletImpulses) {
+                TurretBulletPool.obtain(this.world, _initialPosition.x + this.prototype.bulletOffsetX, _initialPosition.y + this.prototype.bulletOffsetY, bulletImpulse, this.prototype.bulletRegion);
+            }
         }
         
         /*String localFireDirection;
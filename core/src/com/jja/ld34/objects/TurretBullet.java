@@ -1,6 +1,6 @@
 package com.jja.ld34.objects;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.jja.ld34.FixtureFilterBit;
@@ -9,33 +9,62 @@ import com.jja.ld34.Ld34Game;
 /**
  * Created by andrewstrauch on 12/13/15.
  */
-public class TurretBullet extends Entity implements InteractiveObject {
+public class TurretBullet extends Entity {
     public static final float _width = 16f; //float specifies pixels
     public static final float _height = 16f;
 
+    private static final int SPARK_COUNT = 4;
+    private static final float SPARK_SPEED = 1f;     // in m/s
+    private static final float SPARK_LIFE = 0.25f;   // in s
+    private static final float SPARK_SIZE = 6 / Ld34Game.PIXELS_PER_METER;
+
+    private TextureRegion region;
+
     private Direction currentDirection;
     private State currentState;
     private Direction previousDirection;
     private State previousState;
     
-    public TurretBullet(World world, Vector2 initialPosition, Vector2 fireDirection, Texture texture) {
-        super(world, initialPosition, new Vector2(_width, _height), FixtureFilterBit.PROJECTILE_BIT, (short) (FixtureFilterBit.ALL_FLAGS & ~FixtureFilterBit.TURRET_BIT & ~FixtureFilterBit.PROJECTILE_BIT), texture);
+    public TurretBullet(World world, Vector2 initialPosition, Vector2 fireDirection, TextureRegion region) {
+        super(world, initialPosition, new Vector2(_width, _height), FixtureFilterBit.PROJECTILE_BIT, (short) (FixtureFilterBit.ALL_FLAGS & ~FixtureFilterBit.TURRET_BIT & ~FixtureFilterBit.PROJECTILE_BIT), region);
 
         this.body.applyLinearImpulse(fireDirection, this.body.getWorldCenter(), true);
+        this.region = region;
         this.currentDirection = Direction.LEFT;
         this.currentState = State.MOVING;
         this.previousDirection = this.currentDirection;
         this.previousState = this.currentState;
     }
 
-    @Override
-    public void update(float delta) {
-        super.update(delta);
-
+    void fire(float x, float y, Vector2 impulse, TextureRegion region) {
+        setRegion(region);
+        this.region = region;
+        this.body.setTransform((x / Ld34Game.PIXELS_PER_METER) + ((_width / 2) / Ld34Game.PIXELS_PER_METER), (y / Ld34Game.PIXELS_PER_METER) + ((_width / 2) / Ld34Game.PIXELS_PER_METER), 0);
+        this.body.setLinearVelocity(0, 0);
+        this.body.setAngularVelocity(0);
+        this.body.setActive(true);
+        this.body.applyLinearImpulse(impulse, this.body.getWorldCenter(), true);
         setPosition(this.body.getPosition().x - getWidth() / 2, this.body.getPosition().y - getHeight() / 2);
+        resetInterpolation();
+
+        this.shouldDestroy = this.destroyed = false;
+        this.id = ObjectManager.registerObject(this);
     }
-    
-    
+
+    void deactivate() {
+        this.body.setActive(false);
+        this.destroyed = true;
+        ObjectManager.deregisterObject(this);
+    }
+
+    @Override
+    public void destroy() {
+        // spent bullets go back to the pool with their body switched off; only overflow gets destroyed
+        if (!TurretBulletPool.free(this)) {
+            super.destroy();
+        }
+    }
+
     @Override
     public Body initializeBody(Vector2 initialPosition, short filterCategoryBit, short filterMaskBit) {
         BodyDef bodyDef = new BodyDef();
@@ -50,6 +79,7 @@ public class TurretBullet extends Entity implements InteractiveObject {
         fixtureDef.filter.maskBits = filterMaskBit;
         fixtureDef.shape = shape;
         this.body.createFixture(fixtureDef).setUserData(this);
+        shape.dispose();
 
         return this.body;
     }
@@ -58,9 +88,19 @@ public class TurretBullet extends Entity implements InteractiveObject {
         return BASE_MOVEMENT_SPEED;
     }*/
 
-    @Override
-    public void onCollision(short collidingFixtureFilterCategoryBits) {
+    // it touched anything at all; bursts into sparks, which are particles rather than entities
+    public void hit() {
+        if (this.shouldDestroy) {
+            return;
+        }
         this.shouldDestroy = true;
+
+        float x = getCenterX();
+        float y = getCenterY();
+        float speed = SPARK_SPEED * 0.7071f;    // along the diagonals
+        for (int i = 0; i < SPARK_COUNT; i++) {
+            ParticleManager.spawn(x, y, (i % 2 == 0) ? speed : -speed, (i < 2) ? speed : -speed, SPARK_LIFE, SPARK_SIZE, SPARK_SIZE, this.region);
+        }
     }
 
     private enum Direction {
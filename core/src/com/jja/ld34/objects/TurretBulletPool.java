@@ -0,0 +1,70 @@
+package com.jja.ld34.objects;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+// Keeps spent bullets (sprite and deactivated Box2D body included) around so turrets can re-fire them
+// instead of building a new Entity and body for every shot.
+public class TurretBulletPool {
+
+    public static final int CAPACITY = 128;
+
+    private static World pooledWorld;
+    private static Array<TurretBullet> freeBullets = new Array<TurretBullet>(false, CAPACITY);
+
+    private static int hitCount = 0;
+    private static int missCount = 0;
+
+    public static TurretBullet obtain(World world, float x, float y, Vector2 impulse, TextureRegion region) {
+        if (world != pooledWorld) {
+            // bodies belong to the world that created them, so anything pooled for another world is useless
+            clear();
+            pooledWorld = world;
+        }
+
+        if (freeBullets.size > 0) {
+            hitCount++;
+            TurretBullet bullet = freeBullets.pop();
+            bullet.fire(x, y, impulse, region);
+            return bullet;
+        }
+
+        missCount++;
+        return new TurretBullet(world, new Vector2(x, y), impulse, region);
+    }
+
+    /**
+     * Returns a spent bullet to the pool, deactivating its body rather than destroying it.
+     * Returns false if the pool is full, in which case the caller should destroy the bullet for real.
+     */
+    public static boolean free(TurretBullet bullet) {
+        if (bullet.world != pooledWorld || freeBullets.size >= CAPACITY) {
+            return false;
+        }
+
+        bullet.deactivate();
+        freeBullets.add(bullet);
+        return true;
+    }
+
+    // drops all pooled bullets without touching their bodies; call this before disposing the world they live in
+    public static void clear() {
+        freeBullets.clear();
+        pooledWorld = null;
+    }
+
+    public static int getFreeCount() {
+        return freeBullets.size;
+    }
+
+    // obtains served from the pool and ones that had to build a new bullet, since the game started
+    public static int getHitCount() {
+        return hitCount;
+    }
+
+    public static int getMissCount() {
+        return missCount;
+    }
+}
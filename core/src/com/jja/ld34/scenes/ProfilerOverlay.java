@@ -0,0 +1,108 @@
+package com.jja.ld34.scenes;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import com.jja.ld34.FrameProfiler;
+import com.jja.ld34.Ld34Game;
+import com.jja.ld34.Scheduler;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.objects.ClonePopulation;
+import com.jja.ld34.objects.ObjectManager;
+import com.jja.ld34.objects.ParticleManager;
+import com.jja.ld34.objects.TurretBulletPool;
+
+// FrameProfiler readout in the top left corner, only drawn while profiling is enabled
+public class ProfilerOverlay implements Disposable {
+
+    public static final float REFRESH_INTERVAL = 0.25f;  // in s; relaying out the label every frame isn't free
+
+    private Stage stage;
+    private Viewport viewport;
+    private BitmapFont font;
+    private Label label;
+
+    private StringBuilder text;
+    private float refreshTimer;
+
+    public ProfilerOverlay(SpriteBatch spriteBatch) {
+        this.viewport = new FitViewport(Ld34Game.GAME_WIDTH, Ld34Game.GAME_HEIGHT, new OrthographicCamera());
+        this.stage = new Stage(this.viewport, spriteBatch);
+        this.font = new BitmapFont();
+        this.text = new StringBuilder();
+
+        Table table = new Table();
+        table.top().left();
+        table.setFillParent(true);
+        this.label = new Label("", new Label.LabelStyle(this.font, Color.WHITE));
+        table.add(this.label).pad(4);
+        this.stage.addActor(table);
+
+        this.refreshTimer = REFRESH_INTERVAL;
+    }
+
+    public void update(float delta) {
+        if (!FrameProfiler.isEnabled()) {
+            return;
+        }
+        this.refreshTimer += delta;
+        if (this.refreshTimer < REFRESH_INTERVAL) {
+            return;
+        }
+        this.refreshTimer = 0;
+
+        StringBuilder text = this.text;
+        text.setLength(0);
+        FrameProfiler.appendFixed(text.append("frame "), FrameProfiler.getFrameTime());
+        FrameProfiler.appendFixed(text.append(" ms  p50 "), FrameProfiler.getFrameTimePercentile(0.5f));
+        FrameProfiler.appendFixed(text.append("  p99 "), FrameProfiler.getFrameTimePercentile(0.99f));
+        text.append('\n');
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            FrameProfiler.appendFixed(text.append(phase.label).append(' '), FrameProfiler.getPhaseTime(phase)).append(" ms\n");
+        }
+        text.append("objects ").append(ObjectManager.getObjectCount())
+                .append("  destroyed ").append(FrameProfiler.getDestroyedObjects())
+                .append("  tasks ").append(Scheduler.getLiveTaskCount())
+                .append("  bodies ").append(FrameProfiler.getBodyCount())
+                .append("  contacts ").append(FrameProfiler.getContactCount())
+                .append("  events ").append(FrameProfiler.getContactEvents())
+                .append("  particles ").append(ParticleManager.getCount()).append('\n');
+        text.append("sprites drawn ").append(FrameProfiler.getDrawnEntities()).append(" / ").append(FrameProfiler.getTotalEntities()).append('\n');
+        text.append("clones ").append(ClonePopulation.getLiveCount())
+                .append("  queued ").append(ClonePopulation.getQueuedCount())
+                .append("  pooled ").append(ClonePopulation.getFreeCount()).append('\n');
+        text.append("bullets pooled ").append(TurretBulletPool.getFreeCount())
+                .append("  hits ").append(TurretBulletPool.getHitCount())
+                .append("  misses ").append(TurretBulletPool.getMissCount()).append('\n');
+        text.append("ai agents ").append(AgentManager.getAgentCount())
+                .append("  decisions ").append(FrameProfiler.getAiDecisions())
+                .append("  deferred ").append(AgentManager.getLastDeferredCount()).append('\n');
+        text.append("batch calls ").append(FrameProfiler.getRenderCalls())
+                .append("  draws ").append(FrameProfiler.getDrawCalls())
+                .append("  binds ").append(FrameProfiler.getTextureBindings())
+                .append("  shaders ").append(FrameProfiler.getShaderSwitches()).append('\n');
+        FrameProfiler.appendFixed(text.append("alloc "), FrameProfiler.getAllocationRate() / 1024).append(" KB/s  gcs ").append(FrameProfiler.getGcCount());
+
+        this.label.setText(text);
+    }
+
+    public void drawStage() {
+        if (FrameProfiler.isEnabled()) {
+            this.stage.draw();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        this.stage.dispose();
+        this.font.dispose();
+    }
+}
@@ -1,27 +1,28 @@
 package com.jja.ld34.screens;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.maps.MapObject;
-import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.jja.ld34.FixedTimestep;
+import com.jja.ld34.FrameProfiler;
+import com.jja.ld34.GameSimulation;
 import com.jja.ld34.Ld34Game;
+import com.jja.ld34.graphics.StaticMapRenderer;
 import com.jja.ld34.objects.*;
 import com.jja.ld34.scenes.Hud;
+import com.jja.ld34.scenes.ProfilerOverlay;
 
-public class PlayScreen implements Screen, ContactListener {
+public class PlayScreen implements Screen, GameSimulation.Listener {
+
+    public static final int MAX_SUB_STEPS = 5;  // per rendered frame
 
     private SpriteBatch spriteBatch;
 
@@ -29,21 +30,15 @@ public class PlayScreen implements Screen, ContactListener {
     private Viewport viewport;
 
     private Hud hud;
+    private ProfilerOverlay profilerOverlay;
 
-    private TmxMapLoader mapLoader;
-    private TiledMap map;
-    private OrthogonalTiledMapRenderer mapRenderer;
+    private StaticMapRenderer mapRenderer;
 
-    private World world;
+    private AssetManager assetManager;
+    private GameSimulation simulation;
+    private FixedTimestep timestep;
     //private Box2DDebugRenderer debugRenderer;
 
-    private Player player;
-
-    private Timer gameStateTimer;
-    private int numPlayerDeaths;
-    private boolean isGameOver;
-    
-    public static Integer currentLevel = 1;
     private Sound winSound;
     private Sound backgroundSound;
 
@@ -54,255 +49,104 @@ public class PlayScreen implements Screen, ContactListener {
         this.viewport = new FitViewport(Ld34Game.GAME_WIDTH / Ld34Game.PIXELS_PER_METER, Ld34Game.GAME_HEIGHT / Ld34Game.PIXELS_PER_METER, this.camera);
 
         this.hud = new Hud(this.spriteBatch);
-        
-        loadMyMap("1-1.tmx");
+        this.profilerOverlay = new ProfilerOverlay(this.spriteBatch);
+
+        this.assetManager = new AssetManager();
+        this.simulation = new GameSimulation(this.assetManager, this);
+        this.mapRenderer = new StaticMapRenderer(this.simulation.getMap(), 1 / Ld34Game.PIXELS_PER_METER);
         this.camera.position.set(this.viewport.getWorldWidth() / 2, this.viewport.getWorldHeight() / 2, 0);
 
-        this.world = new World(new Vector2(0, 0), true);
-        this.world.setContactListener(this);
+        this.timestep = new FixedTimestep(GameSimulation.TIME_STEP, MAX_SUB_STEPS, FixedTimestep.CatchUpPolicy.DROP);
         //this.debugRenderer = new Box2DDebugRenderer();
 
-        this.numPlayerDeaths = 0;
-        this.isGameOver = false;
-
-        populateWorld();
-        this.gameStateTimer = new Timer();
-        this.gameStateTimer.scheduleTask(new Timer.Task() {
-            @Override
-            public void run() {
-                if (isGameOver) {
-                    return;
-                }
-
-                updateGameState();
-            }
-        }, 1, 1);
-        setNewTimeLeft();
-
         this.backgroundSound = Gdx.audio.newSound(Gdx.files.internal("music.ogg"));
         this.backgroundSound.loop(0.4f);
     }
-    
-    public void loadMyMap(String myMap) {
-        this.mapLoader = new TmxMapLoader();
-        this.map = this.mapLoader.load(myMap);
-        this.mapRenderer = new OrthogonalTiledMapRenderer(this.map, 1 / Ld34Game.PIXELS_PER_METER);
-    }
 
-    public void populateWorld() {
-        if (this.map.getLayers().get("walls") != null) {
-            for (MapObject object : this.map.getLayers().get("walls").getObjects()) {
-                new EnvironmentObject(this.world, ((RectangleMapObject) object).getRectangle());
-            }
-        } else {
-            Gdx.app.error("PlayScreen", "Map has no 'walls' layer!");
-        }
-
-        if (this.map.getLayers().get("exitparts") != null) {
-            for (MapObject object : this.map.getLayers().get("exitparts").getObjects()) {
-                Rectangle bounds = ((RectangleMapObject) object).getRectangle();
-                new ExitPart(this.world, new Vector2(bounds.x, bounds.y));
-            }
-        } else {
-            Gdx.app.error("PlayScreen", "Map has no 'exitparts' layer!");
-        }
-
-        spawnPlayer();
-
-        if (this.map.getLayers().get("exit") != null) {
-            for (MapObject object : this.map.getLayers().get("exit").getObjects()) {
-                Rectangle bounds = ((RectangleMapObject) object).getRectangle();
-                new ExitPortal(this.world, new Vector2(bounds.x+ 15, bounds.y));
-            }
-        } else {
-            Gdx.app.error("PlayScreen", "Map has no 'exit' layer!");
-        }
-        
-        
-        /*if (this.map.getLayers().get("exit") != null) {
-            MapObject exitSpawnMapObject = this.map.getLayers().get("exit").getObjects().get(0);
-            if (exitSpawnMapObject != null) {
-                new ExitPortal(this.world, ((RectangleMapObject) exitSpawnMapObject).getRectangle());
-                Gdx.app.error("PlayScreen", "Exit Spawned!");
-            } else {
-                Gdx.app.error("PlayScreen", "Unable to find exit in 'exit' layer of map! No exit was spawned; there is no exit to this map.");
-            }
-        } else {
-            Gdx.app.error("PlayScreen", "Map has no 'exit' layer!");
-        }*/
-
-        if (this.map.getLayers().get("turretspawn") != null) {
-            for (MapObject object : this.map.getLayers().get("turretspawn").getObjects()) {
-                Rectangle bounds = ((RectangleMapObject) object).getRectangle();
-                new Turret(this.world, new Vector2(bounds.x, bounds.y), currentLevel);
-            }
-        } else {
-            Gdx.app.error("PlayScreen", "Map has no 'turretspawn' layer!");
-        }
-
-        spawnTrumps();
-    }
+    @Override
+    public void onLevelChanged(int level, TiledMap map) {
+        this.mapRenderer.dispose();
+        this.mapRenderer = new StaticMapRenderer(map, 1 / Ld34Game.PIXELS_PER_METER);
 
-    public void spawnPlayer() {
-        if (this.map.getLayers().get("berniespawn") != null) {
-            MapObject protagonistSpawnMapObject = this.map.getLayers().get("berniespawn").getObjects().get(0);
-            if (protagonistSpawnMapObject != null) {
-                Rectangle bounds = ((RectangleMapObject) protagonistSpawnMapObject).getRectangle();
-                this.player = new Player(this.world, new Vector2(bounds.x, bounds.y));
-            } else {
-                this.player = new Player(this.world, new Vector2(0, 0));
-                Gdx.app.error("PlayScreen", "Unable to find spawnpoint for player in 'berniespawn' layer of map! Fell back to spawning at (0, 0).");
-            }
-        } else {
-            this.player = new Player(this.world, new Vector2(0, 0));
-            Gdx.app.error("PlayScreen", "Map has no 'berniespawn' layer! Fell back to spawning at (0, 0).");
+        if (level == 4) {
+            this.backgroundSound.dispose();
+            this.winSound = Gdx.audio.newSound(Gdx.files.internal("startscreen/title.mp3"));
+            this.winSound.play(1.0f);
         }
     }
 
-    public void spawnTrumps() {
-        if (this.map.getLayers().get("trumpspawn") != null) {
-            for (MapObject object : this.map.getLayers().get("trumpspawn").getObjects()) {
-                Rectangle bounds = ((RectangleMapObject) object).getRectangle();
-                new TrumpClone(this.world, new Vector2(bounds.x, bounds.y));
-            }
-        } else {
-            Gdx.app.error("PlayScreen", "Map has no 'trumpspawn' layer!");
+    public void update(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            FrameProfiler.setEnabled(!FrameProfiler.isEnabled());
         }
-    }
 
-    public void handleInput(float delta) {
-        if (this.player != null) {
-            this.player.handleInput();
-        }
-    }
+        FrameProfiler.begin(FrameProfiler.Phase.INPUT);
+        this.simulation.handleInput();
+        FrameProfiler.end(FrameProfiler.Phase.INPUT);
 
-    public void updateGameState() {
-        // continue counting down time left
-        if (Hud.timeLeft > 0) {
-            Hud.timeLeft--;
+        // simulate in fixed steps, however long the frame took
+        int steps = this.timestep.advance(delta);
+        for (int i = 0; i < steps; i++) {
+            this.simulation.step(this.timestep.getStep());
         }
+        ObjectManager.interpolateAllEntities(this.timestep.getAlpha());
+        ParticleManager.interpolate(this.timestep.getAlpha());
 
-        if (Hud.timeLeft == 0) {    // respawn condition
-            if (this.player != null && !this.player.isDying()) {
-                this.player.kill();
-            }
+        Player player = this.simulation.getPlayer();
+        if (player != null) {
+            // center camera on the (interpolated) player
+            this.camera.position.set(player.getX() + player.getWidth() / 2, player.getY() + player.getHeight() / 2, 0);
         }
 
-        if (this.player != null && this.player.isDestroyed()) {
-            this.numPlayerDeaths++;
-            if (setNewTimeLeft() == 0) {
-                // GAME OVER BITCH
-                // TODO: restart the current level
-                Gdx.app.error("GAME OVER", "Refresh to try again!");
-                isGameOver = true;
-            } else {
-                // if there isn't currently a player on the field and there's still time on the clock, spawn a new player
-                spawnPlayer();
-                spawnTrumps();  // also respawn all trumps
-            }
-        }
-        
-        if(ExitPortal.hasBeenActivated){
-            this.isGameOver = true;
-            ObjectManager.deregisterAllObjects();
-            ExitPortal.hasBeenActivated = false;
-            currentLevel++;
-            this.map.dispose();
-            if(currentLevel == 2){
-                loadMyMap("1-2.tmx");
-            } else if (currentLevel == 3){
-                loadMyMap("1-3.tmx");
-            } else if (currentLevel == 4){
-                this.backgroundSound.dispose();
-                this.winSound = Gdx.audio.newSound(Gdx.files.internal("startscreen/title.mp3"));
-                this.winSound.play(1.0f);
-                loadMyMap("1-4.tmx");
-            }
-            populateWorld();
-            numPlayerDeaths = 0;
-            Hud.exitPartsCount = 0;
-            setNewTimeLeft();
-            isGameOver = false;
-        }
-    }
+        this.camera.update();
 
-    public int setNewTimeLeft() {
-        int newTimeLeft = Math.max(((int) (60f / (this.numPlayerDeaths + 1))) - (this.numPlayerDeaths + 1), 0);
-        Hud.timeLeft = newTimeLeft;
-        return newTimeLeft;
+        hud.update();
+        this.profilerOverlay.update(delta);
     }
 
-    public void update(float delta) {
-        handleInput(delta);
-
-        // update world
-        this.world.step(1 / 60f, 6, 2);
-
-        ObjectManager.updateAllObjects(delta);
-
-        if (this.player != null) {
-            // center camera on player
-            this.camera.position.set(this.player.getPosition(), 0);
-        }
-
-        this.camera.update();
-        this.mapRenderer.setView(this.camera);
-        
-        hud.update();
+    public FixedTimestep getTimestep() {
+        return this.timestep;
     }
 
     @Override
     public void render(float delta) {
+        FrameProfiler.beginFrame();
         update(delta);
 
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         // render map
-        this.mapRenderer.render();
+        FrameProfiler.begin(FrameProfiler.Phase.MAP_RENDER);
+        this.mapRenderer.render(this.camera);
+        FrameProfiler.end(FrameProfiler.Phase.MAP_RENDER);
+        FrameProfiler.addRenderCalls(this.mapRenderer.getRenderCalls());
 
         // render debug physics output
         // TODO: remove/comment this before release
-        //this.debugRenderer.render(world, camera.combined);
+        //this.debugRenderer.render(this.simulation.getWorld(), camera.combined);
 
         // render player
+        FrameProfiler.begin(FrameProfiler.Phase.ENTITY_DRAW);
         this.spriteBatch.setProjectionMatrix(camera.combined);
         this.spriteBatch.begin();
-        ObjectManager.drawAllEntities(this.spriteBatch);
+        float viewX = this.camera.position.x - this.camera.viewportWidth / 2;
+        float viewY = this.camera.position.y - this.camera.viewportHeight / 2;
+        ObjectManager.drawEntitiesInView(this.spriteBatch, viewX, viewY, this.camera.viewportWidth, this.camera.viewportHeight);
+        ParticleManager.drawInView(this.spriteBatch, viewX, viewY, this.camera.viewportWidth, this.camera.viewportHeight);
         this.spriteBatch.end();
+        FrameProfiler.end(FrameProfiler.Phase.ENTITY_DRAW);
+        FrameProfiler.addRenderCalls(this.spriteBatch.renderCalls);
 
         // render HUD
+        FrameProfiler.begin(FrameProfiler.Phase.HUD_DRAW);
         this.spriteBatch.setProjectionMatrix(this.hud.getStageCamera());
         this.hud.drawStage();
-    }
-
-    @Override
-    public void beginContact(Contact contact) {
-        Fixture fixtureA = contact.getFixtureA();
-        Fixture fixtureB = contact.getFixtureB();
-
-        if (fixtureA.getUserData() instanceof InteractiveObject) {
-            ((InteractiveObject) fixtureA.getUserData()).onCollision(fixtureB.getFilterData().categoryBits);
-        }
-
-        if (fixtureB.getUserData() instanceof InteractiveObject) {
-            ((InteractiveObject) fixtureB.getUserData()).onCollision(fixtureA.getFilterData().categoryBits);
-        }
-    }
-
-    @Override
-    public void endContact(Contact contact) {
-
-    }
-
-    @Override
-    public void preSolve(Contact contact, Manifold oldManifold) {
-
-    }
-
-    @Override
-    public void postSolve(Contact contact, ContactImpulse impulse) {
+        FrameProfiler.end(FrameProfiler.Phase.HUD_DRAW);
+        FrameProfiler.addRenderCalls(this.spriteBatch.renderCalls);
 
+        this.profilerOverlay.drawStage();
+        FrameProfiler.endFrame(delta, this.simulation.getWorld());
     }
 
     @Override
@@ -328,12 +172,16 @@ public class PlayScreen implements Screen, ContactListener {
 
     @Override
     public void dispose() {
-        this.winSound.dispose();
+        if (this.winSound != null) {
+            this.winSound.dispose();
+        }
         this.backgroundSound.dispose();
-        this.map.dispose();
         this.mapRenderer.dispose();
-        this.world.dispose();
+        this.simulation.dispose();
+        this.assetManager.dispose();
         //this.debugRenderer.dispose();
         this.hud.dispose();
+        this.profilerOverlay.dispose();
+        FrameProfiler.setEnabled(false);
     }
 }
@@ -0,0 +1,95 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.ai.DecisionExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the decide stage over a ForkJoinPool: the batch is halved until slices are at most sliceSize agents, which
+ * then decide on whichever worker picks them up. Agents only write their own intent while deciding and AgentManager
+ * acts on the intents in batch order afterwards, so a run plays out the same as with SerialDecisionExecutor.
+ * Batches no bigger than one slice skip the pool.
+ *
+ * The default slice size only pays off for big batches. AgentManager's budget caps a step's batch at a few dozen
+ * agents, so {@link #forBudget(int, int)} sizes the slices to give each thread one share of a full batch instead.
+ */
+public class ForkJoinDecisionExecutor implements DecisionExecutor, Disposable {
+
+    public static final int DEFAULT_SLICE_SIZE = 16;
+
+    private final ForkJoinPool pool;
+    private final int sliceSize;
+
+    public ForkJoinDecisionExecutor(int parallelism) {
+        this(parallelism, DEFAULT_SLICE_SIZE);
+    }
+
+    public ForkJoinDecisionExecutor(int parallelism, int sliceSize) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.sliceSize = Math.max(1, sliceSize);
+    }
+
+    // splits a full batch of decisionsPerStep agents into one slice per thread
+    public static ForkJoinDecisionExecutor forBudget(int parallelism, int decisionsPerStep) {
+        int threads = Math.max(1, parallelism);
+        return new ForkJoinDecisionExecutor(threads, (decisionsPerStep + threads - 1) / threads);
+    }
+
+    @Override
+    public void decideAll(AgentManager.Agent[] agents, int count) {
+        if (count <= this.sliceSize) {
+            decide(agents, 0, count);
+            return;
+        }
+        this.pool.invoke(new Slice(agents, 0, count, this.sliceSize));
+    }
+
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    public int getSliceSize() {
+        return this.sliceSize;
+    }
+
+    @Override
+    public void dispose() {
+        this.pool.shutdown();
+    }
+
+    private static void decide(AgentManager.Agent[] agents, int start, int end) {
+        for (int i = start; i < end; i++) {
+            agents[i].decide();
+        }
+    }
+
+    private static class Slice extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final AgentManager.Agent[] agents;
+        private final int start;
+        private final int end;
+        private final int sliceSize;
+
+        Slice(AgentManager.Agent[] agents, int start, int end, int sliceSize) {
+            this.agents = agents;
+            this.start = start;
+            this.end = end;
+            this.sliceSize = sliceSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= this.sliceSize) {
+                decide(this.agents, this.start, this.end);
+                return;
+            }
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new Slice(this.agents, this.start, middle, this.sliceSize), new Slice(this.agents, middle, this.end, this.sliceSize));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.jja.ld34.graphics.SpriteSheets;
+
+public class HeadlessAssets {
+
+    // an AssetManager whose textures are placeholders (requires HeadlessGL to be installed)
+    public static AssetManager newAssetManager() {
+        AssetManager assetManager = new AssetManager();
+        assetManager.setLoader(Texture.class, new PlaceholderTextureLoader(new InternalFileHandleResolver()));
+        return assetManager;
+    }
+
+    // the real sprite atlas layout, but with placeholder page textures (requires HeadlessGL to be installed)
+    public static TextureAtlas loadSpriteAtlas() {
+        FileHandle packFile = Gdx.files.internal(SpriteSheets.ATLAS_FILE);
+        TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(packFile, packFile.parent(), false);
+        for (TextureAtlas.TextureAtlasData.Page page : data.getPages()) {
+            page.texture = new Texture(new PlaceholderTextureData((int) page.width, (int) page.height));
+        }
+        return new TextureAtlas(data);
+    }
+}
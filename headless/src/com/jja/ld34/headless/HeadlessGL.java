@@ -0,0 +1,48 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * A GL20 that does nothing, so code paths that create textures, shaders or batches can run without a GL context.
+ * Every call returns zero/false/empty, except that shaders, programs and generated objects (buffers, textures, ...)
+ * get a non-zero handle, and shaders and programs always report they compiled and linked.
+ */
+public class HeadlessGL {
+
+    public static void install() {
+        GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ((name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) && args[2] instanceof IntBuffer) {
+                    int parameter = (Integer) args[1];
+                    boolean ok = parameter == GL20.GL_COMPILE_STATUS || parameter == GL20.GL_LINK_STATUS;
+                    ((IntBuffer) args[2]).put(0, ok ? 1 : 0);
+                    return null;
+                }
+                if (name.equals("glCreateShader") || name.equals("glCreateProgram") || (name.startsWith("glGen") && method.getReturnType() == int.class)) {
+                    return 1;
+                }
+
+                Class<?> returnType = method.getReturnType();
+                if (returnType == int.class) {
+                    return 0;
+                } else if (returnType == boolean.class) {
+                    return false;
+                } else if (returnType == float.class) {
+                    return 0f;
+                } else if (returnType == String.class) {
+                    return "";
+                }
+                return null;
+            }
+        });
+        Gdx.gl = Gdx.gl20 = gl;
+    }
+}
@@ -0,0 +1,17 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+// usage: HeadlessLauncher [runs] [maxTicksPerRun] [seed] [aiThreads]; run from core/assets
+public class HeadlessLauncher {
+
+    public static void main(String[] args) {
+        int runs = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+        int maxTicksPerRun = (args.length > 1) ? Integer.parseInt(args[1]) : 60 * 60 * 5;
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : System.nanoTime();
+        int aiThreads = (args.length > 3) ? Integer.parseInt(args[3]) : 1;
+
+        new HeadlessApplication(new SimulationRunner(runs, maxTicksPerRun, seed, aiThreads), new HeadlessApplicationConfiguration());
+    }
+}
@@ -0,0 +1,14 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.jja.ld34.levels.LevelLoader;
+
+// loads levels with placeholder tileset textures, so no image is decoded (requires HeadlessGL to be installed)
+public class HeadlessLevelLoader extends LevelLoader {
+
+    @Override
+    protected Texture loadTexture(FileHandle file, int width, int height) {
+        return new Texture(new PlaceholderTextureData(width, height));
+    }
+}
@@ -0,0 +1,54 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.XmlReader;
+
+import java.io.IOException;
+
+/**
+ * Loads TMX maps with every tileset image swapped for a placeholder texture of the size the map declares, so tile
+ * layers and object layers come out as usual without any image being decoded. Only embedded tilesets are supported.
+ */
+public class HeadlessTmxMapLoader extends TmxMapLoader {
+
+    @Override
+    public TiledMap load(String fileName, TmxMapLoader.Parameters parameters) {
+        try {
+            this.convertObjectToTileSpace = parameters.convertObjectToTileSpace;
+            this.flipY = parameters.flipY;
+
+            FileHandle tmxFile = resolve(fileName);
+            this.root = this.xml.parse(tmxFile);
+
+            final ObjectMap<String, TextureRegion> images = new ObjectMap<String, TextureRegion>();
+            Array<Texture> textures = new Array<Texture>();
+            for (XmlReader.Element image : this.root.getChildrenByNameRecursively("image")) {
+                String path = getRelativeFileHandle(tmxFile, image.getAttribute("source")).path();
+                if (!images.containsKey(path)) {
+                    Texture texture = new Texture(new PlaceholderTextureData(image.getIntAttribute("width"), image.getIntAttribute("height")));
+                    textures.add(texture);
+                    images.put(path, new TextureRegion(texture));
+                }
+            }
+
+            TiledMap map = loadTilemap(this.root, tmxFile, new ImageResolver() {
+                @Override
+                public TextureRegion getImage(String name) {
+                    return images.get(name);
+                }
+            });
+            map.setOwnedResources(textures);
+            return map;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't load tilemap '" + fileName + "'", e);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.XmlReader;
+import com.jja.ld34.WallCompiler;
+import com.jja.ld34.levels.LevelData;
+import com.jja.ld34.levels.LevelFormat;
+import com.jja.ld34.objects.Archetype;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Bakes TMX maps into the binary levels LevelLoader reads (see LevelFormat): tile layers as packed cells, the
+ * "walls" layer pre-merged by WallCompiler, and the spawn layers as flat rectangle tables. Each spawn also gets an
+ * Archetype, resolved from the spawn layer's and the object's own properties (see Archetype.Property for the names).
+ * Any other object layer is dropped with a warning, since nothing reads it at runtime.
+ *
+ * usage: LevelCompiler map.tmx...; run from core/assets, writes map.lvl next to each map
+ */
+public class LevelCompiler extends ApplicationAdapter {
+
+    private static final String WALLS_LAYER = "walls";
+
+    // properties TmxMapLoader adds to every object, which aren't archetype properties
+    private static final String[] BUILT_IN_PROPERTIES = { "x", "y", "width", "height", "rotation", "type", "id", "gid", "name" };
+
+    private final String[] mapFiles;
+
+    public LevelCompiler(String[] mapFiles) {
+        this.mapFiles = mapFiles;
+    }
+
+    public static void main(String[] args) {
+        new HeadlessApplication(new LevelCompiler(args), new HeadlessApplicationConfiguration());
+    }
+
+    @Override
+    public void create() {
+        HeadlessGL.install();
+        try {
+            for (String mapFile : this.mapFiles) {
+                compile(Gdx.files.local(mapFile));
+            }
+        } catch (Exception e) {
+            Gdx.app.error("LevelCompiler", "Level compilation failed", e);
+            System.exit(1);     // fail the build
+        }
+        Gdx.app.exit();
+    }
+
+    private void compile(FileHandle mapFile) throws IOException {
+        TiledMap map = new HeadlessTmxMapLoader().load(mapFile.path());
+        XmlReader.Element root = new XmlReader().parse(mapFile);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(LevelFormat.MAGIC);
+        out.writeInt(LevelFormat.VERSION);
+
+        int width = root.getIntAttribute("width");
+        int height = root.getIntAttribute("height");
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(root.getIntAttribute("tilewidth"));
+        out.writeInt(root.getIntAttribute("tileheight"));
+
+        // TmxMapLoader doesn't keep the image layout, so the tilesets come straight from the XML
+        Array<XmlReader.Element> tilesets = root.getChildrenByName("tileset");
+        out.writeInt(tilesets.size);
+        for (XmlReader.Element tileset : tilesets) {
+            if (tileset.getAttribute("source", null) != null) {
+                throw new GdxRuntimeException(mapFile.name() + ": external tilesets aren't supported");
+            }
+            XmlReader.Element image = tileset.getChildByName("image");
+            if (image == null) {
+                throw new GdxRuntimeException(mapFile.name() + ": image collection tilesets aren't supported");
+            }
+            writeString(out, tileset.getAttribute("name", ""));
+            writeString(out, image.getAttribute("source"));
+            out.writeInt(tileset.getIntAttribute("firstgid", 1));
+            out.writeInt(image.getIntAttribute("width"));
+            out.writeInt(image.getIntAttribute("height"));
+            out.writeInt(tileset.getIntAttribute("tilewidth"));
+            out.writeInt(tileset.getIntAttribute("tileheight"));
+            out.writeInt(tileset.getIntAttribute("margin", 0));
+            out.writeInt(tileset.getIntAttribute("spacing", 0));
+        }
+
+        Array<TiledMapTileLayer> tileLayers = new Array<TiledMapTileLayer>();
+        for (MapLayer layer : map.getLayers()) {
+            if (layer instanceof TiledMapTileLayer) {
+                tileLayers.add((TiledMapTileLayer) layer);
+            } else if (!isCompiledObjectLayer(layer.getName())) {
+                Gdx.app.error("LevelCompiler", mapFile.name() + ": dropping unused layer '" + layer.getName() + "'");
+            }
+        }
+        out.writeInt(tileLayers.size);
+        for (TiledMapTileLayer layer : tileLayers) {
+            writeString(out, layer.getName());
+            out.writeByte(layer.isVisible() ? 1 : 0);
+            out.writeFloat(layer.getOpacity());
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                    if (cell == null || cell.getTile() == null) {
+                        out.writeInt(0);
+                    } else {
+                        out.writeInt(LevelFormat.packCell(cell.getTile().getId(), cell.getFlipHorizontally(), cell.getFlipVertically(), cell.getRotation()));
+                    }
+                }
+            }
+        }
+
+        Array<Rectangle> walls = rectangles(map, mapFile, WALLS_LAYER);
+        Array<float[]> wallLoops = WallCompiler.compileLoops(walls);
+        int corners = 0;
+        out.writeInt(wallLoops.size);
+        for (float[] loop : wallLoops) {
+            out.writeInt(loop.length);
+            for (float value : loop) {
+                out.writeFloat(value);
+            }
+            corners += loop.length / 2;
+        }
+
+        int archetypeCount = 0;
+        out.writeInt(Archetype.PROPERTIES.length);
+        for (LevelData.SpawnTable table : LevelData.SpawnTable.values()) {
+            Array<Rectangle> spawns = rectangles(map, mapFile, table.layerName);
+            Array<Archetype> archetypes = new Array<Archetype>();
+            IntArray spawnArchetypes = archetypes(map, mapFile, table.layerName, archetypes);
+
+            out.writeInt(archetypes.size);
+            for (Archetype archetype : archetypes) {
+                for (Archetype.Property property : Archetype.PROPERTIES) {
+                    out.writeFloat(archetype.get(property));
+                }
+            }
+            out.writeInt(spawns.size);
+            for (int i = 0; i < spawns.size; i++) {
+                Rectangle spawn = spawns.get(i);
+                out.writeFloat(spawn.x);
+                out.writeFloat(spawn.y);
+                out.writeFloat(spawn.width);
+                out.writeFloat(spawn.height);
+                out.writeInt(spawnArchetypes.get(i));
+            }
+            archetypeCount += archetypes.size;
+        }
+        out.close();
+        map.dispose();
+
+        FileHandle levelFile = mapFile.sibling(mapFile.nameWithoutExtension() + LevelFormat.EXTENSION);
+        levelFile.writeBytes(bytes.toByteArray(), false);
+        Gdx.app.log("LevelCompiler", mapFile.name() + " (" + mapFile.length() + " bytes) -> " + levelFile.name() + " (" + levelFile.length() + " bytes): "
+                + tileLayers.size + " tile layers, " + walls.size + " walls -> " + wallLoops.size + " loops / " + corners + " corners, "
+                + archetypeCount + " spawn archetypes");
+    }
+
+    private static boolean isCompiledObjectLayer(String name) {
+        if (WALLS_LAYER.equals(name)) {
+            return true;
+        }
+        for (LevelData.SpawnTable table : LevelData.SpawnTable.values()) {
+            if (table.layerName.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Array<Rectangle> rectangles(TiledMap map, FileHandle mapFile, String layerName) {
+        Array<Rectangle> rectangles = new Array<Rectangle>();
+        MapLayer layer = map.getLayers().get(layerName);
+        if (layer == null) {
+            Gdx.app.error("LevelCompiler", mapFile.name() + " has no '" + layerName + "' layer!");
+            return rectangles;
+        }
+        for (MapObject object : layer.getObjects()) {
+            if (object instanceof RectangleMapObject) {
+                rectangles.add(((RectangleMapObject) object).getRectangle());
+            } else {
+                Gdx.app.error("LevelCompiler", mapFile.name() + ": skipping non-rectangle object in '" + layerName + "'");
+            }
+        }
+        return rectangles;
+    }
+
+    // the archetype of each rectangle in the layer (in the order rectangles() returns them), as an index into archetypes
+    private static IntArray archetypes(TiledMap map, FileHandle mapFile, String layerName, Array<Archetype> archetypes) {
+        IntArray spawnArchetypes = new IntArray();
+        MapLayer layer = map.getLayers().get(layerName);
+        if (layer == null) {
+            return spawnArchetypes;
+        }
+
+        float[] layerValues = Archetype.defaultValues();
+        readProperties(layer.getProperties(), layerValues, mapFile.name() + " layer '" + layerName + "'");
+        for (MapObject object : layer.getObjects()) {
+            if (!(object instanceof RectangleMapObject)) {
+                continue;
+            }
+
+            float[] values = layerValues.clone();
+            readProperties(object.getProperties(), values, mapFile.name() + " object in '" + layerName + "'");
+            int index = -1;
+            for (int i = 0; i < archetypes.size && index == -1; i++) {
+                if (archetypes.get(i).hasValues(values)) {
+                    index = i;
+                }
+            }
+            if (index == -1) {
+                index = archetypes.size;
+                archetypes.add(new Archetype(values));
+            }
+            spawnArchetypes.add(index);
+        }
+        return spawnArchetypes;
+    }
+
+    private static void readProperties(MapProperties properties, float[] values, String owner) {
+        Iterator<String> keys = properties.getKeys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (isBuiltInProperty(key)) {
+                continue;
+            }
+
+            Archetype.Property property = Archetype.Property.forKey(key);
+            if (property == null) {
+                Gdx.app.error("LevelCompiler", owner + ": ignoring unknown property '" + key + "'");
+                continue;
+            }
+            String value = properties.get(key).toString();
+            float number;
+            try {
+                number = Float.parseFloat(value);
+            } catch (NumberFormatException e) {
+                throw new GdxRuntimeException(owner + ": property '" + key + "' isn't a number: " + value);
+            }
+            if (number < 0) {
+                throw new GdxRuntimeException(owner + ": property '" + key + "' can't be negative: " + value);
+            }
+            values[property.ordinal()] = number;
+        }
+    }
+
+    private static boolean isBuiltInProperty(String key) {
+        for (String builtIn : BUILT_IN_PROPERTIES) {
+            if (builtIn.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value.length() > 0xffff) {
+            throw new GdxRuntimeException("String too long for a level file: " + value);
+        }
+        out.writeShort(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c > 0x7f) {
+                throw new GdxRuntimeException("Level file strings must be ASCII: " + value);
+            }
+            out.writeByte(c);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+// Texture data with a size but no pixels: enough for texture region math, with nothing decoded or uploaded.
+public class PlaceholderTextureData implements TextureData {
+
+    private final int width;
+    private final int height;
+
+    public PlaceholderTextureData(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public TextureDataType getType() {
+        return TextureDataType.Custom;
+    }
+
+    @Override
+    public boolean isPrepared() {
+        return true;
+    }
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public Pixmap consumePixmap() {
+        throw new GdxRuntimeException("Placeholder textures have no pixels");
+    }
+
+    @Override
+    public boolean disposePixmap() {
+        return false;
+    }
+
+    @Override
+    public void consumeCustomData(int target) {
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public Pixmap.Format getFormat() {
+        return Pixmap.Format.RGBA8888;
+    }
+
+    @Override
+    public boolean useMipMaps() {
+        return false;
+    }
+
+    @Override
+    public boolean isManaged() {
+        return false;
+    }
+}
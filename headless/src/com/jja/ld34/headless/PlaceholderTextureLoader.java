@@ -0,0 +1,60 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// AssetManager texture loader that only reads a PNG's size from its header and returns a placeholder texture
+public class PlaceholderTextureLoader extends SynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
+
+    private static final int PNG_HEADER_LENGTH = 24;   // signature, IHDR length and type, then width and height
+
+    public PlaceholderTextureLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public Texture load(AssetManager assetManager, String fileName, FileHandle file, TextureLoader.TextureParameter parameter) {
+        byte[] header = new byte[PNG_HEADER_LENGTH];
+        InputStream in = file.read();
+        try {
+            int read = 0;
+            while (read < header.length) {
+                int count = in.read(header, read, header.length - read);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+            }
+            if (read < header.length || header[1] != 'P' || header[2] != 'N' || header[3] != 'G') {
+                throw new GdxRuntimeException("Placeholder textures can only be made for PNGs: " + fileName);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read " + fileName, e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+        return new Texture(new PlaceholderTextureData(readInt(header, 16), readInt(header, 20)));
+    }
+
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, TextureLoader.TextureParameter parameter) {
+        return null;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16) | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+    }
+}
@@ -0,0 +1,85 @@
+package com.jja.ld34.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.jja.ld34.GameSimulation;
+import com.jja.ld34.ai.AgentManager;
+import com.jja.ld34.ai.SerialDecisionExecutor;
+import com.jja.ld34.graphics.SpriteSheets;
+
+/**
+ * Plays back-to-back level runs through GameSimulation as fast as the CPU allows and reports the simulation
+ * throughput. A run lasts until the game is over or maxTicksPerRun fixed steps have been simulated. Each run's seed
+ * is drawn from the runner's seed, so the same seed plays back the same runs. With more than one thread, AI agents
+ * decide on a ForkJoinPool; the runs play out the same either way.
+ *
+ * The decision budget stays at AgentManager's, since it decides which agents think on which step, and raising it with
+ * the thread count would change the runs. Instead, the pool gets each step's batch split into one slice per thread.
+ */
+public class SimulationRunner extends ApplicationAdapter {
+
+    private final int runs;
+    private final int maxTicksPerRun;
+    private final long seed;
+    private final int threads;
+
+    public SimulationRunner(int runs, int maxTicksPerRun, long seed) {
+        this(runs, maxTicksPerRun, seed, 1);
+    }
+
+    public SimulationRunner(int runs, int maxTicksPerRun, long seed, int threads) {
+        this.runs = runs;
+        this.maxTicksPerRun = maxTicksPerRun;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    @Override
+    public void create() {
+        HeadlessGL.install();
+        SpriteSheets.acquire(HeadlessAssets.loadSpriteAtlas());
+        AssetManager assetManager = HeadlessAssets.newAssetManager();
+
+        Gdx.app.log("SimulationRunner", "seed " + this.seed + ", " + this.threads + " AI thread(s)");
+        ForkJoinDecisionExecutor executor = null;
+        if (this.threads > 1) {
+            executor = ForkJoinDecisionExecutor.forBudget(this.threads, AgentManager.getDecisionsPerStep());
+            AgentManager.setExecutor(executor);
+            Gdx.app.log("SimulationRunner", "up to " + AgentManager.getDecisionsPerStep() + " decisions per step, in slices of " + executor.getSliceSize());
+        }
+        RandomXS128 runSeeds = new RandomXS128(this.seed);
+
+        long totalTicks = 0;
+        long startTime = TimeUtils.nanoTime();
+        for (int run = 0; run < this.runs; run++) {
+            GameSimulation simulation = new GameSimulation(assetManager, null, runSeeds.nextLong());
+
+            int ticks = 0;
+            while (!simulation.isGameOver() && ticks < this.maxTicksPerRun) {
+                simulation.handleInput();
+                simulation.step(GameSimulation.TIME_STEP);
+                ticks++;
+            }
+
+            simulation.dispose();
+            totalTicks += ticks;
+        }
+        float seconds = (TimeUtils.nanoTime() - startTime) / 1000000000f;
+
+        Gdx.app.log("SimulationRunner", String.format("%d runs, %d ticks (%.1f simulated s) in %.3f s",
+                this.runs, totalTicks, totalTicks * GameSimulation.TIME_STEP, seconds));
+        Gdx.app.log("SimulationRunner", String.format("throughput: %.0f ticks/s, %.1f runs/s",
+                totalTicks / seconds, this.runs / seconds));
+
+        if (executor != null) {
+            AgentManager.setExecutor(new SerialDecisionExecutor());
+            executor.dispose();
+        }
+        assetManager.dispose();
+        SpriteSheets.release();
+        Gdx.app.exit();
+    }
+}
@@ -0,0 +1,20 @@
+package com.jja.gwt;
+
+import com.badlogic.gdx.backends.gwt.preloader.DefaultAssetFilter;
+
+/**
+ * Keeps the TMX maps out of the web build: the game only loads the .lvl files compiled from them (see
+ * headless:compileLevels), so shipping the sources too would only add to the download.
+ *
+ * Used by the GWT compiler's preloader, not by the game, so it lives outside com/jja/ld34, which GWT translates.
+ */
+public class LevelAssetFilter extends DefaultAssetFilter {
+
+    @Override
+    public boolean accept(String file, boolean isDirectory) {
+        if (!isDirectory && file.endsWith(".tmx")) {
+            return false;
+        }
+        return super.accept(file, isDirectory);
+    }
+}